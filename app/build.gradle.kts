@@ -24,6 +24,12 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Build mesurée par :macrobenchmark (release signée debug, voir src/benchmark)
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_1_8
@@ -37,18 +43,25 @@ android {
 
 dependencies {
 
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation("com.google.android.material:material:1.11.0")
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("androidx.cardview:cardview:1.0.0")
+    // Installe src/main/baseline-prof.txt (compilation AOT au premier lancement)
+    implementation(libs.profileinstaller)
 
     // Lifecycle components
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.7.0")
     implementation("androidx.lifecycle:lifecycle-livedata:2.7.0")
 
     testImplementation(libs.junit)
+    // Vraie implémentation org.json pour les tests JVM (android.jar n'en fournit que des stubs)
+    testImplementation(libs.json)
+    // SQLite sur la JVM pour les tests de l'historique (HistoryDatabase, PlayerRegistry)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
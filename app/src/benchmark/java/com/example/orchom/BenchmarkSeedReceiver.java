@@ -0,0 +1,93 @@
+package com.example.orchom;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.Random;
+
+/**
+ * Build "benchmark" uniquement. Prépare les données mesurées par le module :macrobenchmark :
+ * <pre>
+ * adb shell am broadcast -a com.example.orchom.SEED_BENCHMARK -p com.example.orchom \
+ *     --ei games 5000 --ez active_game true
+ * </pre>
+ * Traitement synchrone : "am broadcast" ne rend la main qu'une fois les données écrites.
+ */
+public class BenchmarkSeedReceiver extends BroadcastReceiver {
+
+    private static final String[] NAMES = {"Yassine", "Amira", "Karim", "Salma", "Hedi", "Ines"};
+    private static final int BATCH = 500;
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        int games = intent.getIntExtra("games", 0);
+        try {
+            seedHistory(context, games);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        if (intent.getBooleanExtra("active_game", false)) {
+            seedActiveGame(context, intent.getIntExtra("rounds", 10));
+        }
+        setResultCode(games);
+    }
+
+    /**
+     * Complète l'historique jusqu'à {@code games} parties (idempotent entre deux itérations).
+     */
+    private void seedHistory(Context context, int games) throws JSONException {
+        HistoryDatabase db = HistoryDatabase.getInstance(context);
+        Random random = new Random(games);
+        int missing = games - db.getGameCount();
+        long now = System.currentTimeMillis();
+        while (missing > 0) {
+            JSONArray batch = new JSONArray();
+            for (int i = 0; i < Math.min(BATCH, missing); i++) {
+                batch.put(fakeEntry(random, now - (long) (missing - i) * 3_600_000L));
+            }
+            db.importLegacy(batch);
+            missing -= batch.length();
+        }
+    }
+
+    private JSONObject fakeEntry(Random random, long date) throws JSONException {
+        int playerCount = 2 + random.nextInt(4);
+        int rounds = 5 + random.nextInt(20);
+        JSONArray players = new JSONArray();
+        Player winner = null;
+        for (int i = 0; i < playerCount; i++) {
+            Player p = new Player(NAMES[i], i, GameEngine.playerColorHex(i));
+            for (int r = 0; r < rounds; r++) {
+                p.addRoundScore(random.nextInt(5) == 0 ? -10 * (1 + random.nextInt(10)) : random.nextInt(60));
+            }
+            if (winner == null || p.getScore() < winner.getScore()) winner = p;
+            players.put(p.toJSON());
+        }
+        JSONObject entry = new JSONObject();
+        entry.put("game_name", "Partie " + (date / 3_600_000L % 1000));
+        entry.put("winner", winner.getName());
+        entry.put("winner_score", winner.getScore());
+        entry.put("date", date);
+        entry.put("players", players);
+        return entry;
+    }
+
+    private void seedActiveGame(Context context, int rounds) {
+        String[] names = {NAMES[0], NAMES[1], NAMES[2], NAMES[3]};
+        GameManager manager = GameManager.getInstance();
+        // Une seule table à chaque envoi : les itérations mesurent toujours le même état
+        manager.clearAllTables(context);
+        manager.startNewGame(context, new GameConfig("Benchmark", names.length, 100000, names, "ROTATION", 0, 50, 10, 20, 100));
+        Random random = new Random(rounds);
+        for (int r = 0; r < rounds; r++) {
+            int[] scores = new int[names.length];
+            for (int i = 0; i < scores.length; i++) scores[i] = random.nextInt(60);
+            manager.applyRound(context, scores);
+        }
+        manager.saveGame(context);
+        manager.flush();
+    }
+}
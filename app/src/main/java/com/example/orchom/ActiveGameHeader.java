@@ -0,0 +1,68 @@
+package com.example.orchom;
+
+import android.content.SharedPreferences;
+
+/**
+ * En-tête d'une table en cours : de quoi afficher "Reprendre" ou la liste des tables sans
+ * décoder le snapshot ni rejouer le journal. Stocké dans les préférences GameTables,
+ * clés préfixées par l'identifiant de la table (map déjà en mémoire après la première lecture).
+ */
+public final class ActiveGameHeader {
+
+    static final String KEY_ACTIVE = "game_active";
+    static final String KEY_GAME_ID = "game_id";
+    static final String KEY_ROUND = "header_round";
+    static final String KEY_LAST_MODIFIED = "last_modified";
+    static final String KEY_NAME = "header_name";
+
+    public static final ActiveGameHeader NONE = new ActiveGameHeader(false, null, null, 0, 0L);
+
+    public final boolean active;
+    public final String gameId;
+    /** Nom de la partie (GameConfig.gameName), null si inconnu. */
+    public final String name;
+    /** Manche en cours, 0 si inconnue (sauvegarde antérieure à l'en-tête). */
+    public final int round;
+    /** Dernière manche enregistrée (ms epoch), 0 si inconnue. */
+    public final long lastModified;
+
+    public ActiveGameHeader(boolean active, String gameId, String name, int round, long lastModified) {
+        this.active = active;
+        this.gameId = gameId;
+        this.name = name;
+        this.round = round;
+        this.lastModified = lastModified;
+    }
+
+    public static ActiveGameHeader read(SharedPreferences prefs) {
+        return read(prefs, "");
+    }
+
+    /**
+     * @param prefix préfixe des clés (une table par préfixe dans les mêmes préférences)
+     */
+    public static ActiveGameHeader read(SharedPreferences prefs, String prefix) {
+        if (!prefs.getBoolean(prefix + KEY_ACTIVE, false)) return NONE;
+        return new ActiveGameHeader(true,
+                prefs.getString(prefix + KEY_GAME_ID, null),
+                prefs.getString(prefix + KEY_NAME, null),
+                prefs.getInt(prefix + KEY_ROUND, 0),
+                prefs.getLong(prefix + KEY_LAST_MODIFIED, 0L));
+    }
+
+    public SharedPreferences.Editor writeTo(SharedPreferences.Editor editor) {
+        return writeTo(editor, "");
+    }
+
+    public SharedPreferences.Editor writeTo(SharedPreferences.Editor editor, String prefix) {
+        if (!active) {
+            return editor.remove(prefix + KEY_ACTIVE).remove(prefix + KEY_GAME_ID).remove(prefix + KEY_NAME)
+                    .remove(prefix + KEY_ROUND).remove(prefix + KEY_LAST_MODIFIED);
+        }
+        return editor.putBoolean(prefix + KEY_ACTIVE, true)
+                .putString(prefix + KEY_GAME_ID, gameId)
+                .putString(prefix + KEY_NAME, name)
+                .putInt(prefix + KEY_ROUND, round)
+                .putLong(prefix + KEY_LAST_MODIFIED, lastModified);
+    }
+}
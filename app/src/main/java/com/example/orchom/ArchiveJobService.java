@@ -0,0 +1,46 @@
+package com.example.orchom;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Passe d'archivage planifiée par HistoryArchiver.schedule (appareil inactif ou en charge).
+ * Chaque tâche a son thread et son indicateur d'annulation : onStopJob n'interrompt
+ * que la tâche arrêtée, entre deux parties. Les passes elles-mêmes ne se chevauchent pas
+ * (HistoryArchiver.run).
+ */
+public class ArchiveJobService extends JobService {
+
+    private final Map<Integer, AtomicBoolean> running = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        running.put(params.getJobId(), cancelled);
+        Thread worker = new Thread(() -> {
+            boolean retry = false;
+            try {
+                HistoryArchiver.run(getApplicationContext(), cancelled);
+            } catch (IOException e) {
+                e.printStackTrace();
+                retry = true;
+            }
+            running.remove(params.getJobId(), cancelled);
+            if (!cancelled.get()) jobFinished(params, retry);
+        }, "orchom-archive");
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        AtomicBoolean cancelled = running.remove(params.getJobId());
+        if (cancelled != null) cancelled.set(true);
+        return true; // Reprendre à la prochaine fenêtre
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.orchom;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Travail de fond des écrans (lectures d'historique, du registre, rejeu, modifications du
+ * registre) sur un exécuteur partagé par toute l'application, au lieu d'un thread par appel.
+ * Chaque écran a son BackgroundLoader : une requête relancée sous la même clé remplace la
+ * précédente, dont le résultat est ignoré, et close() (onDestroy) annule les lectures pas encore
+ * commencées et oublie tous les callbacks, si bien qu'aucun écran détruit n'est retenu ni rappelé.
+ * Les résultats arrivent sur le thread principal ; toutes les méthodes s'y appellent.
+ */
+public final class BackgroundLoader {
+
+    public interface Task<T> {
+        T run();
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static final int THREADS = 2;
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "orchom-background");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+
+    private final class Request<T> implements Runnable {
+        final String key;
+        final boolean cancellable;
+        // Oubliés à l'annulation : la tâche encore en file ne retient plus l'écran
+        volatile Task<T> task;
+        volatile Callback<T> callback;
+        Future<?> future;
+
+        Request(String key, boolean cancellable, Task<T> task, Callback<T> callback) {
+            this.key = key;
+            this.cancellable = cancellable;
+            this.task = task;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            Task<T> t = task;
+            if (t == null) return;
+            task = null;
+            final T result = t.run();
+            if (callback != null) mainHandler.post(() -> deliver(this, result));
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Request<?>> pending = new HashMap<>();
+    private boolean closed = false;
+
+    /**
+     * Lecture : annulée si elle n'a pas commencé quand une autre la remplace ou que l'écran se ferme.
+     */
+    public <T> void load(String key, Task<T> task, Callback<T> callback) {
+        submit(new Request<>(key, true, task, callback));
+    }
+
+    /**
+     * Modification : toujours exécutée jusqu'au bout, seul son résultat peut être ignoré.
+     */
+    public <T> void update(String key, Task<T> task, Callback<T> callback) {
+        submit(new Request<>(key, false, task, callback));
+    }
+
+    private void submit(Request<?> request) {
+        if (closed) return;
+        cancel(request.key);
+        pending.put(request.key, request);
+        request.future = EXECUTOR.submit(request);
+    }
+
+    /**
+     * Le résultat en attente sous cette clé ne sera pas livré.
+     */
+    public void cancel(String key) {
+        Request<?> request = pending.remove(key);
+        if (request == null) return;
+        request.callback = null;
+        if (request.cancellable) {
+            request.task = null;
+            request.future.cancel(false);
+        }
+    }
+
+    /**
+     * Fin de l'écran (onDestroy) : plus aucun résultat livré.
+     */
+    public void close() {
+        closed = true;
+        for (String key : new ArrayList<>(pending.keySet())) cancel(key);
+    }
+
+    private <T> void deliver(Request<T> request, T result) {
+        if (pending.get(request.key) != request) return; // Remplacée ou annulée entre-temps
+        pending.remove(request.key);
+        Callback<T> callback = request.callback;
+        if (callback != null) callback.onResult(result);
+    }
+}
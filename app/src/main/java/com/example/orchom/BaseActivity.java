@@ -14,6 +14,8 @@ import com.example.orchom.databinding.ActivityBaseBinding;
 public abstract class BaseActivity extends AppCompatActivity {
 
     protected ActivityBaseBinding baseBinding;
+    // Travail de fond de l'écran ; plus aucun résultat livré après onDestroy
+    protected final BackgroundLoader background = new BackgroundLoader();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,9 +51,17 @@ public abstract class BaseActivity extends AppCompatActivity {
         LayoutInflater.from(this).inflate(layoutResID, container, true);
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Les écritures de partie/historique doivent être sur disque avant que l'app passe en arrière-plan
+        GameManager.getInstance().flush();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        background.close();
         baseBinding = null;
     }
 }
@@ -1,13 +1,35 @@
 package com.example.orchom;
 
 import android.content.Context;
+import android.graphics.Color;
 import androidx.core.content.ContextCompat;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Utility class to manage app colors and avoid hardcoded strings.
  */
 public class ColorManager {
 
+    private static final Map<String, Integer> parsedColors = new HashMap<>();
+
+    /**
+     * Couleur hexadécimale convertie en int, mise en cache (une seule analyse par couleur).
+     */
+    public static synchronized int parseColor(String hex, int fallback) {
+        if (hex == null) return fallback;
+        Integer cached = parsedColors.get(hex);
+        if (cached == null) {
+            try {
+                cached = Color.parseColor(hex);
+            } catch (IllegalArgumentException e) {
+                cached = fallback;
+            }
+            parsedColors.put(hex, cached);
+        }
+        return cached;
+    }
+
     public static int getPlayerColor(Context context, int index) {
         int colorRes;
         switch (index % 5) {
@@ -22,13 +44,6 @@ public class ColorManager {
     }
 
     public static String getPlayerColorHex(int index) {
-        switch (index % 5) {
-            case 0: return "#C41E3A"; // player_red
-            case 1: return "#2E7D32"; // player_green
-            case 2: return "#F57C00"; // player_orange
-            case 3: return "#512DA8"; // player_purple
-            case 4: return "#1976D2"; // player_blue
-            default: return "#000000";
-        }
+        return GameEngine.playerColorHex(index); // Palette partagée avec le module core
     }
 }
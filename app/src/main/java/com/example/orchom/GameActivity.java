@@ -3,35 +3,53 @@ package com.example.orchom;
 import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.graphics.Color;
 import android.os.Bundle;
+import android.text.InputType;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.orchom.databinding.ContentGameBinding;
 import com.example.orchom.databinding.RoundScoreInputItemBinding;
-import com.example.orchom.databinding.PlayerCardLayoutBinding;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
 
 public class GameActivity extends BaseActivity {
 
     private ContentGameBinding binding;
     private GameManager gameManager;
     private final List<RoundScoreInputItemBinding> inputBindings = new ArrayList<>();
+    private final LeaderboardAdapter leaderboardAdapter = new LeaderboardAdapter();
+
+    private static final int HISTORY_SAMPLES = 500; // Manches passées retenues par joueur
+    private final WinProbabilityEstimator estimator = new WinProbabilityEstimator(ForkJoinPool.commonPool());
+    private final List<TextView> oddsRows = new ArrayList<>();
+    private WinProbabilityEstimator.Estimate estimate;
+    private int[][] roundHistory; // Par siège, null tant que l'historique n'est pas chargé
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         binding = ContentGameBinding.inflate(getLayoutInflater(), baseBinding.container, true);
         gameManager = GameManager.getInstance();
+        binding.leaderboardRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        binding.leaderboardRecyclerView.setAdapter(leaderboardAdapter);
 
-        handleGameState();
+        handleGameState(savedInstanceState);
         setupListeners();
         refreshUI();
+        loadRoundHistory();
     }
 
     @Override
@@ -39,11 +57,16 @@ public class GameActivity extends BaseActivity {
         return "Partie en cours";
     }
 
-    private void handleGameState() {
-        if (getIntent().hasExtra("game_config")) {
+    /**
+     * La configuration reçue ouvre une table une seule fois : une recréation (rotation, thème,
+     * restauration du processus) reprend la table sélectionnée, y compris après un changement de table.
+     */
+    private void handleGameState(Bundle savedInstanceState) {
+        if (savedInstanceState == null && getIntent().hasExtra("game_config")) {
             GameConfig config = (GameConfig) getIntent().getSerializableExtra("game_config");
+            getIntent().removeExtra("game_config");
             if (config != null) {
-                gameManager.startNewGame(config);
+                gameManager.startNewGame(this, config);
                 gameManager.saveGame(this);
             } else {
                 Toast.makeText(this, "Configuration invalide", Toast.LENGTH_SHORT).show();
@@ -51,10 +74,8 @@ public class GameActivity extends BaseActivity {
                 return;
             }
         } else {
-            if (!gameManager.isGameActive()) {
-                gameManager.restoreGame(this);
-            }
-            if (!gameManager.isGameActive()) {
+            // Restauration complète différée jusqu'ici, et évitée si la mémoire est à jour
+            if (!gameManager.ensureGameLoaded(this)) {
                 Toast.makeText(this, "Aucune partie active trouvée", Toast.LENGTH_SHORT).show();
                 finish();
             }
@@ -136,14 +157,8 @@ public class GameActivity extends BaseActivity {
             }
         }
 
-        // Ajouter les scores au GameManager
-        for (int i = 0; i < players.size(); i++) {
-            players.get(i).addRoundScore(scores[i]);
-        }
-
-        // Passer à la manche suivante
-        gameManager.startNextRound();
-        gameManager.saveGame(this);
+        // Ajouter les scores et passer à la manche suivante
+        gameManager.applyRound(this, scores);
         refreshUI();
         checkForGameOver();
 
@@ -165,13 +180,284 @@ public class GameActivity extends BaseActivity {
         
         binding.roundDisplay.setText("MANCHE " + gameManager.getCurrentRound());
         binding.finalScoreDisplay.setText("Objectif : +" + config.targetScore + " pts");
+        List<Player> players = gameManager.getPlayers();
+        for (int i = 0; i < inputBindings.size() && i < players.size(); i++) {
+            inputBindings.get(i).currentScoreText.setText(players.get(i).getScore() + " pts");
+        }
         displayLeaderboard();
+        binding.scoreChart.update(players, config.targetScore);
+        restartEstimate(); // Après chaque manche validée, corrigée ou annulée
+        invalidateOptionsMenu();
+    }
+
+    /**
+     * Distributions de scores par manche des joueurs du registre (historique et archive),
+     * lues une fois hors du thread UI.
+     */
+    private void loadRoundHistory() {
+        final GameConfig config = gameManager.getCurrentConfig();
+        if (config == null) return;
+        final String gameId = gameManager.getCurrentGameId();
+        final android.content.Context appContext = getApplicationContext();
+        // Changer de table remplace la lecture en cours (même clé)
+        background.load("odds", () -> {
+            int[][] history = new int[config.playerCount][];
+            for (int i = 0; i < history.length; i++) {
+                long playerId = config.getPlayerId(i);
+                history[i] = playerId > 0
+                        ? GameManager.getInstance().getRoundSamples(appContext, playerId, HISTORY_SAMPLES)
+                        : new int[0];
+            }
+            return history;
+        }, history -> {
+            if (binding == null || !gameId.equals(gameManager.getCurrentGameId())) return; // Table changée entre-temps
+            roundHistory = history;
+            restartEstimate();
+        });
+    }
+
+    /**
+     * Annule l'estimation en cours et en relance une sur l'état actuel ; les résultats
+     * arrivent lot par lot et ceux d'une estimation remplacée sont ignorés.
+     */
+    private void restartEstimate() {
+        if (estimate != null) estimate.cancel();
+        estimate = null;
+        GameConfig config = gameManager.getCurrentConfig();
+        List<Player> players = gameManager.getPlayers();
+        if (roundHistory == null || config == null || players == null || roundHistory.length != players.size()) return;
+
+        int[] totals = new int[players.size()];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = players.get(i).getScore();
+            if (totals[i] >= config.targetScore) {
+                showOddsStatus("Partie terminée");
+                return;
+            }
+        }
+        int[][] distributions = buildDistributions(players);
+        if (distributions == null) {
+            showOddsStatus("Pronostic disponible après la première manche");
+            return;
+        }
+
+        final WinProbabilityEstimator.Estimate[] started = new WinProbabilityEstimator.Estimate[1];
+        started[0] = estimator.start(totals, distributions, config.targetScore, System.nanoTime(),
+                result -> runOnUiThread(() -> {
+                    if (binding != null && estimate == started[0]) showOdds(result);
+                }));
+        estimate = started[0];
+    }
+
+    /**
+     * Manches passées du joueur plus celles de la partie en cours ; un joueur sans aucune
+     * manche reprend la distribution commune de la table. Null si personne n'a de données.
+     */
+    private int[][] buildDistributions(List<Player> players) {
+        int[][] distributions = new int[players.size()][];
+        int pooledSize = 0;
+        for (int i = 0; i < distributions.length; i++) {
+            ScoreBuffer current = players.get(i).getRoundScoreBuffer();
+            int[] past = roundHistory[i];
+            int[] d = Arrays.copyOf(past, past.length + current.size());
+            System.arraycopy(current.array(), 0, d, past.length, current.size());
+            distributions[i] = d;
+            pooledSize += d.length;
+        }
+        if (pooledSize == 0) return null;
+        int[] pooled = new int[pooledSize];
+        int offset = 0;
+        for (int[] d : distributions) {
+            System.arraycopy(d, 0, pooled, offset, d.length);
+            offset += d.length;
+        }
+        for (int i = 0; i < distributions.length; i++) {
+            if (distributions[i].length == 0) distributions[i] = pooled;
+        }
+        return distributions;
+    }
+
+    private void showOdds(WinProbabilityEstimator.Result result) {
+        List<Player> players = gameManager.getPlayers();
+        if (players == null || players.size() != result.getPlayerCount()) return;
+        ensureOddsRows(players);
+        for (int i = 0; i < players.size(); i++) {
+            oddsRows.get(i).setText(String.format(Locale.FRANCE, "%s — victoire %.0f %% · saut %.0f %%",
+                    players.get(i).getName(), result.winChance(i) * 100, result.bustChance(i) * 100));
+        }
+        binding.oddsStatusText.setText(result.complete
+                ? result.simulations + " fins de partie simulées"
+                : "Estimation… " + result.simulations + " simulations");
+    }
+
+    private void showOddsStatus(String status) {
+        binding.oddsStatusText.setText(status);
+        binding.oddsContainer.removeAllViews();
+        oddsRows.clear();
+    }
+
+    private void ensureOddsRows(List<Player> players) {
+        if (oddsRows.size() == players.size()) return;
+        binding.oddsContainer.removeAllViews();
+        oddsRows.clear();
+        for (int i = 0; i < players.size(); i++) {
+            TextView row = new TextView(this);
+            row.setTextSize(14);
+            row.setPadding(0, 4, 0, 4);
+            row.setTextColor(ColorManager.parseColor(players.get(i).getColor(), 0xFFE11D48));
+            binding.oddsContainer.addView(row);
+            oddsRows.add(row);
+        }
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.game_menu, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        menu.findItem(R.id.action_undo).setEnabled(gameManager.canUndo());
+        menu.findItem(R.id.action_edit_round).setEnabled(gameManager.getPlayedRounds() > 0);
+        return super.onPrepareOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        if (item.getItemId() == R.id.action_undo) {
+            if (gameManager.undo(this)) {
+                refreshUI();
+                Toast.makeText(this, "Action annulée ↩️", Toast.LENGTH_SHORT).show();
+            }
+            return true;
+        } else if (item.getItemId() == R.id.action_edit_round) {
+            showRoundPicker();
+            return true;
+        } else if (item.getItemId() == R.id.action_tables) {
+            showTables();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Tables ouvertes, d'après leurs en-têtes : passer à une table déjà en mémoire ne relit rien.
+     */
+    private void showTables() {
+        final List<ActiveGameHeader> tables = gameManager.listTables(this);
+        final String currentId = gameManager.getCurrentGameId();
+        String[] items = new String[tables.size() + 1];
+        for (int i = 0; i < tables.size(); i++) {
+            ActiveGameHeader h = tables.get(i);
+            String name = h.name != null && !h.name.isEmpty() ? h.name : "Table " + (i + 1);
+            items[i] = (h.gameId.equals(currentId) ? "✓ " : "") + name + " · Manche " + h.round;
+        }
+        items[tables.size()] = "➕ Nouvelle table";
+        new AlertDialog.Builder(this)
+                .setTitle("Tables en cours")
+                .setItems(items, (d, which) -> {
+                    if (which == tables.size()) {
+                        startActivity(new Intent(this, SetupActivity.class));
+                        finish();
+                        return;
+                    }
+                    String id = tables.get(which).gameId;
+                    if (id.equals(currentId)) return;
+                    if (gameManager.switchTable(this, id)) {
+                        onTableChanged();
+                    } else {
+                        Toast.makeText(this, "Impossible d'ouvrir cette table", Toast.LENGTH_SHORT).show();
+                    }
+                })
+                .setNegativeButton("Fermer", null)
+                .show();
+    }
+
+    /**
+     * Nouvelle table sélectionnée : saisie, classement, graphique et pronostic repartent de son état.
+     */
+    private void onTableChanged() {
+        if (estimate != null) estimate.cancel();
+        estimate = null;
+        roundHistory = null;
+        showOddsStatus("Chargement de l'historique…");
+        setupRoundInputs();
+        refreshUI();
+        loadRoundHistory();
+    }
+
+    /**
+     * Liste des manches jouées avec, pour chacune, les scores et le cumul de chaque joueur
+     * après cette manche (lecture O(log manches) dans l'arbre de Fenwick de Player).
+     */
+    private void showRoundPicker() {
+        List<Player> players = gameManager.getPlayers();
+        int played = gameManager.getPlayedRounds();
+        if (players == null || played == 0) return;
+
+        String[] items = new String[played];
+        for (int r = 0; r < played; r++) {
+            StringBuilder sb = new StringBuilder("Manche ").append(r + 1).append(" : ");
+            for (int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                if (i > 0) sb.append(" · ");
+                sb.append(p.getName()).append(' ').append(p.getRoundScoreBuffer().get(r))
+                        .append(" (").append(p.getScoreAfterRound(r + 1)).append(')');
+            }
+            items[r] = sb.toString();
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Corriger une manche")
+                .setItems(items, (d, which) -> showRoundEditor(which))
+                .setNegativeButton("Fermer", null)
+                .show();
+    }
+
+    private void showRoundEditor(int roundIndex) {
+        List<Player> players = gameManager.getPlayers();
+        int[] current = gameManager.getRoundScores(roundIndex);
+        if (players == null || current == null) return;
+
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        LinearLayout form = new LinearLayout(this);
+        form.setOrientation(LinearLayout.VERTICAL);
+        form.setPadding(padding, padding / 2, padding, 0);
+        List<EditText> inputs = new ArrayList<>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            EditText input = new EditText(this);
+            input.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_SIGNED);
+            input.setHint(players.get(i).getName());
+            input.setText(String.valueOf(current[i]));
+            form.addView(input);
+            inputs.add(input);
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Manche " + (roundIndex + 1))
+                .setView(form)
+                .setPositiveButton("Enregistrer", (d, w) -> {
+                    int[] scores = new int[inputs.size()];
+                    for (int i = 0; i < scores.length; i++) {
+                        try {
+                            scores[i] = Integer.parseInt(inputs.get(i).getText().toString().trim());
+                        } catch (NumberFormatException e) {
+                            Toast.makeText(this, "Score invalide pour " + players.get(i).getName(), Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+                    }
+                    gameManager.editRound(this, roundIndex, scores);
+                    refreshUI();
+                    checkForGameOver();
+                    Toast.makeText(this, "Manche " + (roundIndex + 1) + " corrigée ✏️", Toast.LENGTH_SHORT).show();
+                })
+                .setNegativeButton("Annuler", null)
+                .show();
     }
 
     private void displayLeaderboard() {
         if (binding == null) return;
         
-        binding.playersContainer.removeAllViews();
         List<Player> players = new ArrayList<>(gameManager.getPlayers());
         
         // Trier par score croissant (le plus bas en premier = meilleur)
@@ -181,34 +467,21 @@ public class GameActivity extends BaseActivity {
         int targetScore = config != null ? config.targetScore : 500;
         int dangerThreshold = (int)(targetScore * 0.8);
 
+        List<LeaderboardAdapter.Row> rows = new ArrayList<>(players.size());
         for (int i = 0; i < players.size(); i++) {
             Player p = players.get(i);
-            PlayerCardLayoutBinding cardBinding = PlayerCardLayoutBinding.inflate(
-                getLayoutInflater(), binding.playersContainer, true);
-            
-            cardBinding.rankPosition.setText(String.valueOf(i + 1));
-            cardBinding.playerName.setText(p.getName());
-            cardBinding.playerScore.setText(String.valueOf(p.getScore()));
-            
-            // Logic de couleur du score
+            int status;
             if (p.getScore() >= targetScore) {
-                cardBinding.playerScore.setTextColor(Color.parseColor("#EF4444")); // Rouge Danger (Perdu)
-                cardBinding.rankPosition.setBackgroundTintList(android.content.res.ColorStateList.valueOf(Color.parseColor("#0F172A")));
+                status = LeaderboardAdapter.STATUS_LOST;
             } else if (p.getScore() > dangerThreshold) {
-                cardBinding.playerScore.setTextColor(Color.parseColor("#F59E0B")); // Orange Warning
-                cardBinding.rankPosition.setBackgroundTintList(android.content.res.ColorStateList.valueOf(Color.parseColor("#E11D48")));
+                status = LeaderboardAdapter.STATUS_WARNING;
             } else {
-                cardBinding.playerScore.setTextColor(Color.parseColor("#0F172A")); // Normal
-                cardBinding.rankPosition.setBackgroundTintList(android.content.res.ColorStateList.valueOf(Color.parseColor("#10B981")));
-            }
-
-            // Couleur de l'indicateur personnalisée du joueur
-            try {
-                cardBinding.colorIndicator.setBackgroundColor(Color.parseColor(p.getColor()));
-            } catch (Exception e) {
-                cardBinding.colorIndicator.setBackgroundColor(Color.parseColor("#E11D48"));
+                status = LeaderboardAdapter.STATUS_NORMAL;
             }
+            rows.add(new LeaderboardAdapter.Row(p.getId(), p.getName(), p.getScore(), i + 1, status,
+                    ColorManager.parseColor(p.getColor(), 0xFFE11D48)));
         }
+        leaderboardAdapter.submitList(rows);
     }
 
     private void checkForGameOver() {
@@ -245,16 +518,7 @@ public class GameActivity extends BaseActivity {
      * Retourne le joueur avec le score le plus BAS (meilleur score)
      */
     private Player getWinner() {
-        List<Player> players = gameManager.getPlayers();
-        if (players == null || players.isEmpty()) return null;
-        
-        Player winner = players.get(0);
-        for (Player p : players) {
-            if (p.getScore() < winner.getScore()) {
-                winner = p;
-            }
-        }
-        return winner;
+        return gameManager.getWinner();
     }
 
     private void showEndGameDialog() {
@@ -274,6 +538,7 @@ public class GameActivity extends BaseActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (estimate != null) estimate.cancel();
         binding = null;
     }
 }
\ No newline at end of file
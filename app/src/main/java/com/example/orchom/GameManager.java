@@ -5,25 +5,58 @@ import android.content.SharedPreferences;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Tables en cours (plusieurs parties simultanées) et accès à l'historique.
+ * Chaque table (GameTable) a son identifiant, son état et sa persistance ; l'API
+ * "partie courante" s'applique à la table sélectionnée. Les tables récemment utilisées
+ * restent en mémoire (changement de table instantané), les autres sont déchargées sur disque
+ * et relues à la demande.
+ */
 public class GameManager {
     private static GameManager instance;
-    private GameConfig currentConfig;
-    private List<Player> currentPlayers;
-    private boolean isGameActive = false;
-    private int currentRound = 1;
-    private int currentStarterIndex = 0;
-    
-    // Constants for SharedPreferences
+    private final java.util.Random random = new java.util.Random();
+
+    // Tables chargées, de la moins à la plus récemment utilisée
+    private static final int MAX_RESIDENT_TABLES = 8;
+    private static final long IDLE_EVICT_MS = 15 * 60 * 1000L;
+    private final LinkedHashMap<String, GameTable> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // Index des tables ouvertes (ordre de création) et table sélectionnée, lu une fois
+    private final List<String> tableIds = new ArrayList<>();
+    private String currentId;
+    private GameTable current; // Null tant que la table sélectionnée n'est pas chargée
+    private boolean indexLoaded = false;
+
+    // Toute écriture passe par ce thread unique : l'UI ne sérialise ni n'écrit rien
+    private final PersistenceWriter writer = new PersistenceWriter();
+
+    // Index des tables : ids, table sélectionnée, puis un ActiveGameHeader par table (clés préfixées)
+    private static final String TABLES_PREF_NAME = "GameTables";
+    private static final String KEY_TABLE_IDS = "table_ids";
+    private static final String KEY_CURRENT_TABLE = "current_table";
+    private static final String TABLES_DIR = "tables";
+
+    // Ancien format à une seule partie (migré une fois) et ancien historique JSON
     private static final String PREF_NAME = "GameSave";
-    private static final String KEY_ACTIVE = "game_active";
+    private static final String KEY_ACTIVE = ActiveGameHeader.KEY_ACTIVE;
     private static final String KEY_CONFIG = "game_config";
     private static final String KEY_PLAYERS = "players";
     private static final String KEY_HISTORY = "history";
     private static final String KEY_ROUND = "current_round";
     private static final String KEY_STARTER_INDEX = "starter_index";
+    private static final String KEY_JOURNAL_SEQ = "journal_seq";
+    private static final String KEY_GAME_ID = ActiveGameHeader.KEY_GAME_ID;
 
     private GameManager() {}
 
@@ -34,210 +67,606 @@ public class GameManager {
         return instance;
     }
 
-    public void startNewGame(GameConfig config) {
-        this.currentConfig = config;
-        this.currentPlayers = new ArrayList<>();
-        this.currentRound = 1;
-        
-        if ("ALEATOIRE".equals(config.startingPlayerMode)) {
-            this.currentStarterIndex = (int) (Math.random() * config.playerCount);
-        } else {
-            this.currentStarterIndex = config.firstPlayerIndex;
-        }
-        
-        for (int i = 0; i < config.playerCount; i++) {
-            String color = ColorManager.getPlayerColorHex(i);
-            this.currentPlayers.add(new Player(config.playerNames[i], i, color));
-        }
-        
-        this.isGameActive = true;
+    /**
+     * Ouvre une nouvelle table et la sélectionne ; les autres tables restent en cours.
+     */
+    public void startNewGame(Context context, GameConfig config) {
+        loadIndex(context);
+        GameEngine game = GameEngine.newGame(java.util.UUID.randomUUID().toString(), config, random);
+        GameTable table = GameTable.create(tableDir(context, game.getGameId()), game);
+        tableIds.add(table.getId());
+        select(context, table);
     }
 
     public int getStartingPlayerIndex(Context context) {
-        return currentStarterIndex;
+        return current != null ? current.game.getStarterIndex() : 0;
     }
 
     public void rotateStarter() {
-        if (currentConfig != null && currentConfig.playerCount > 0) {
-            currentStarterIndex = (currentStarterIndex + 1) % currentConfig.playerCount;
-        }
+        if (current != null) current.game.rotateStarter();
     }
 
     public void setStarterIndex(int index) {
-        if (currentConfig != null && index >= 0 && index < currentConfig.playerCount) {
-            this.currentStarterIndex = index;
+        if (current != null) current.game.setStarterIndex(index);
+    }
+
+    // --- Tables ---
+
+    /**
+     * En-tête de la table sélectionnée, sans la restaurer : depuis la mémoire si elle est
+     * chargée, sinon depuis l'index. Appelable à chaque onResume.
+     */
+    public ActiveGameHeader peekActiveGame(Context context) {
+        loadIndex(context);
+        if (current != null) return current.header();
+        return currentId != null ? ActiveGameHeader.read(tablesPrefs(context), prefix(currentId)) : ActiveGameHeader.NONE;
+    }
+
+    /**
+     * En-têtes de toutes les tables ouvertes, dans l'ordre d'ouverture, sans en restaurer aucune.
+     */
+    public List<ActiveGameHeader> listTables(Context context) {
+        loadIndex(context);
+        // Parcours des valeurs : ne modifie pas l'ordre LRU, contrairement à get()
+        Map<String, ActiveGameHeader> live = new HashMap<>();
+        for (GameTable t : resident.values()) live.put(t.getId(), t.header());
+        SharedPreferences prefs = tablesPrefs(context);
+        List<ActiveGameHeader> headers = new ArrayList<>(tableIds.size());
+        for (String id : tableIds) {
+            ActiveGameHeader h = live.get(id);
+            if (h == null) h = ActiveGameHeader.read(prefs, prefix(id));
+            if (h.active) headers.add(h);
         }
+        return headers;
+    }
+
+    public int getTableCount(Context context) {
+        loadIndex(context);
+        return tableIds.size();
+    }
+
+    /**
+     * Sélectionne une autre table : immédiat si elle est en mémoire, sinon relue depuis son dossier.
+     * @return false si la table n'existe plus ou ne peut pas être relue
+     */
+    public boolean switchTable(Context context, String gameId) {
+        loadIndex(context);
+        if (!tableIds.contains(gameId)) return false;
+        GameTable table = resident.get(gameId);
+        if (table == null) table = load(context, gameId);
+        if (table == null) return false;
+        select(context, table);
+        return true;
     }
 
+    /**
+     * Restaure la table sélectionnée depuis le disque seulement si elle n'est pas déjà en mémoire.
+     * @return true si une partie est active
+     */
+    public boolean ensureGameLoaded(Context context) {
+        loadIndex(context);
+        while (current == null && currentId != null) {
+            GameTable table = resident.get(currentId);
+            if (table == null) table = load(context, currentId);
+            if (table != null) {
+                select(context, table);
+            } else {
+                currentId = fallbackTableId(); // load() a retiré la table illisible
+            }
+        }
+        return current != null;
+    }
 
+    /**
+     * Relit la table sélectionnée depuis le disque, en abandonnant l'état en mémoire.
+     */
     public void restoreGame(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        if (prefs.getBoolean(KEY_ACTIVE, false)) {
-            try {
-                String configJson = prefs.getString(KEY_CONFIG, "");
-                String playersJson = prefs.getString(KEY_PLAYERS, "");
-                
-                if (configJson != null && !configJson.isEmpty() && playersJson != null && !playersJson.isEmpty() && !playersJson.equals("[]")) {
-                    this.currentConfig = GameConfig.fromJSON(new JSONObject(configJson));
-                    
-                    JSONArray arr = new JSONArray(playersJson);
-                    this.currentPlayers = new ArrayList<>();
-                    for (int i = 0; i < arr.length(); i++) {
-                        Player p = Player.fromJSON(arr.getJSONObject(i));
-                        if (p != null) {
-                            this.currentPlayers.add(p);
-                        }
-                    }
-                    
-                    this.currentRound = prefs.getInt(KEY_ROUND, 1);
-                    this.currentStarterIndex = prefs.getInt(KEY_STARTER_INDEX, 0);
-                    
-                    // Final safety check
-                    this.isGameActive = (this.currentConfig != null && this.currentPlayers != null && !this.currentPlayers.isEmpty());
-                } else {
-                    this.isGameActive = false;
-                }
-            } catch (JSONException e) {
-                e.printStackTrace();
-                this.isGameActive = false; // Corrupt data
+        loadIndex(context);
+        if (currentId == null) return;
+        writer.flush();
+        resident.remove(currentId);
+        current = null;
+        ensureGameLoaded(context);
+    }
+
+    /**
+     * Décharge toutes les tables non sélectionnées (pression mémoire), après un snapshot de chacune.
+     * Une table terminée n'est fermée que si l'historique contient déjà la partie dans cet état
+     * (GameTable.isSavedToHistory) ; sinon elle est conservée comme une table en cours.
+     */
+    public void trimTables(Context context) {
+        boolean closed = false;
+        Iterator<GameTable> it = resident.values().iterator();
+        while (it.hasNext()) {
+            GameTable t = it.next();
+            if (t == current) continue;
+            if (t.game.isGameOver() && t.isSavedToHistory()) {
+                tableIds.remove(t.getId());
+                deleteTable(context, t.getId());
+                closed = true;
+            } else {
+                persistSnapshot(context, t);
             }
-        } else {
-            this.isGameActive = false;
+            it.remove();
         }
+        if (closed) writeIndex(context);
     }
 
-    public void saveGame(Context context) {
-        if (!isGameActive || currentConfig == null) return;
-        
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        SharedPreferences.Editor editor = prefs.edit();
-        
-        editor.putBoolean(KEY_ACTIVE, true);
-        editor.putInt(KEY_ROUND, currentRound);
-        editor.putInt(KEY_STARTER_INDEX, currentStarterIndex);
-        
-        JSONObject configJson = currentConfig.toJSON();
-        if (configJson != null) editor.putString(KEY_CONFIG, configJson.toString());
-        
-        JSONArray playersArr = new JSONArray();
-        for (Player p : currentPlayers) {
-            JSONObject pj = p.toJSON();
-            if (pj != null) playersArr.put(pj);
+    private void select(Context context, GameTable table) {
+        table.markUsed();
+        resident.put(table.getId(), table);
+        current = table;
+        currentId = table.getId();
+        evictIdle(context);
+        writeIndex(context);
+    }
+
+    /**
+     * Au-delà de MAX_RESIDENT_TABLES, ou inactives depuis IDLE_EVICT_MS : les tables les moins
+     * récemment utilisées sont écrites (snapshot) puis retirées de la mémoire.
+     */
+    private void evictIdle(Context context) {
+        long now = System.currentTimeMillis();
+        Iterator<GameTable> it = resident.values().iterator();
+        while (it.hasNext()) {
+            GameTable t = it.next();
+            if (t == current) continue;
+            if (resident.size() > MAX_RESIDENT_TABLES || now - t.getLastUsed() > IDLE_EVICT_MS) {
+                persistSnapshot(context, t);
+                it.remove();
+            }
         }
-        editor.putString(KEY_PLAYERS, playersArr.toString());
-        
-        editor.apply();
     }
 
+    /**
+     * Relit une table déchargée ; une table illisible est retirée de l'index.
+     */
+    private GameTable load(Context context, String gameId) {
+        writer.flush(); // Le snapshot écrit à l'éviction doit être sur disque
+        long lastModified = ActiveGameHeader.read(tablesPrefs(context), prefix(gameId)).lastModified;
+        GameTable table = GameTable.restore(tableDir(context, gameId), lastModified, random);
+        if (table == null) {
+            tableIds.remove(gameId);
+            writeIndex(context);
+        }
+        return table;
+    }
+
+    /**
+     * Table à sélectionner quand la courante disparaît : la plus récemment utilisée encore
+     * en mémoire, sinon la dernière ouverte.
+     */
+    private String fallbackTableId() {
+        String id = null;
+        for (String residentId : resident.keySet()) id = residentId;
+        if (id == null && !tableIds.isEmpty()) id = tableIds.get(tableIds.size() - 1);
+        return id;
+    }
+
+    private void loadIndex(Context context) {
+        if (indexLoaded) return;
+        indexLoaded = true;
+        SharedPreferences prefs = tablesPrefs(context);
+        for (String id : prefs.getString(KEY_TABLE_IDS, "").split(",")) {
+            if (!id.isEmpty()) tableIds.add(id);
+        }
+        currentId = prefs.getString(KEY_CURRENT_TABLE, null);
+        if (currentId != null && !tableIds.contains(currentId)) currentId = null;
+        if (currentId == null && !tableIds.isEmpty()) currentId = tableIds.get(tableIds.size() - 1);
+        migrateLegacySave(context);
+    }
+
+    private void writeIndex(Context context) {
+        final SharedPreferences prefs = tablesPrefs(context);
+        final String ids = android.text.TextUtils.join(",", tableIds);
+        final String selected = currentId;
+        writer.submit("tables-index", () -> prefs.edit()
+                .putString(KEY_TABLE_IDS, ids)
+                .putString(KEY_CURRENT_TABLE, selected)
+                .commit());
+    }
+
+    private static SharedPreferences tablesPrefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(TABLES_PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static String prefix(String gameId) {
+        return gameId + ".";
+    }
+
+    private static File tableDir(Context context, String gameId) {
+        return new File(new File(context.getFilesDir(), TABLES_DIR), gameId);
+    }
+
+    // --- Ancien format à une partie ---
 
-    public void startNextRound() {
-        currentRound++;
-        
-        // Handle automatic rotation modes (Bug 3)
-        if (currentConfig != null) {
-            if ("ROTATION".equals(currentConfig.startingPlayerMode)) {
-                rotateStarter();
-            } else if ("ALEATOIRE".equals(currentConfig.startingPlayerMode)) {
-                currentStarterIndex = (int) (Math.random() * currentConfig.playerCount);
+    /**
+     * Reprend l'unique partie de GameSave (snapshot binaire ou JSON, puis journal) comme
+     * une table, puis efface l'ancien format.
+     */
+    private void migrateLegacySave(Context context) {
+        final SharedPreferences legacy = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        if (!legacy.getBoolean(KEY_ACTIVE, false)) return;
+        final SnapshotStore store = new SnapshotStore(context.getApplicationContext());
+        final RoundJournal journal = new RoundJournal(context.getApplicationContext());
+        GameSnapshot fallback = store.exists() ? null : readLegacyJson(legacy);
+        GameTable old = GameTable.restore(store, journal, fallback, ActiveGameHeader.read(legacy).lastModified, random);
+        if (old != null) {
+            GameTable table = GameTable.create(tableDir(context, old.getId()), old.game);
+            if (!tableIds.contains(table.getId())) tableIds.add(table.getId());
+            select(context, table);
+            persistSnapshot(context, table);
+        }
+        writer.submit(null, () -> {
+            ActiveGameHeader.NONE.writeTo(legacy.edit())
+                    .remove(KEY_CONFIG).remove(KEY_PLAYERS).remove(KEY_ROUND).remove(KEY_STARTER_INDEX).remove(KEY_JOURNAL_SEQ)
+                    .commit();
+            store.delete();
+            journal.clear();
+        });
+    }
+
+    /**
+     * Format antérieur au snapshot binaire : config et joueurs en JSON dans GameSave.
+     */
+    private static GameSnapshot readLegacyJson(SharedPreferences prefs) {
+        try {
+            String configJson = prefs.getString(KEY_CONFIG, "");
+            String playersJson = prefs.getString(KEY_PLAYERS, "");
+            
+            if (configJson == null || configJson.isEmpty() || playersJson == null || playersJson.isEmpty() || playersJson.equals("[]")) {
+                return null;
+            }
+            GameConfig config = GameConfig.fromJSON(new JSONObject(configJson));
+            
+            JSONArray arr = new JSONArray(playersJson);
+            List<Player> players = new ArrayList<>();
+            for (int i = 0; i < arr.length(); i++) {
+                Player p = Player.fromJSON(arr.getJSONObject(i));
+                if (p != null) {
+                    players.add(p);
+                }
             }
+            
+            String gameId = prefs.getString(KEY_GAME_ID, null);
+            if (gameId == null) {
+                gameId = java.util.UUID.randomUUID().toString(); // Sauvegarde antérieure aux identifiants
+            }
+            return new GameSnapshot(gameId, config, players,
+                    prefs.getInt(KEY_ROUND, 1), prefs.getInt(KEY_STARTER_INDEX, 0), prefs.getInt(KEY_JOURNAL_SEQ, 0));
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // --- Partie de la table sélectionnée ---
+
+    /**
+     * Applique une manche validée (scores dans l'ordre des sièges), passe à la manche
+     * suivante et la persiste. Coût constant : une ligne ajoutée au journal de la table,
+     * avec un snapshot compact toutes les GameTable.SNAPSHOT_INTERVAL manches.
+     */
+    public void applyRound(Context context, int[] scores) {
+        if (current == null) return;
+        journal(context, current, current.applyRound(scores));
+    }
+
+    /**
+     * Corrige une manche déjà jouée (index 0 = première). Seule la correction est journalisée
+     * (une ligne), les totaux suivent en O(log manches) par joueur.
+     */
+    public void editRound(Context context, int roundIndex, int[] scores) {
+        if (current == null) return;
+        journal(context, current, current.editRound(roundIndex, scores));
+    }
+
+    public boolean canUndo() {
+        return current != null && current.canUndo();
+    }
+
+    /**
+     * Annule la dernière manche validée ou correction de la table dans cette session,
+     * journalisée comme delta. La pile d'annulation est perdue si la table est déchargée.
+     * @return false s'il n'y a rien à annuler
+     */
+    public boolean undo(Context context) {
+        if (current == null) return false;
+        RoundJournal.Record record = current.undo();
+        if (record == null) return false;
+        journal(context, current, record);
+        return true;
+    }
+
+    /**
+     * Persiste un enregistrement déjà appliqué en mémoire : une ligne ajoutée au journal
+     * de la table, ou un snapshot complet quand la table le demande.
+     */
+    private void journal(Context context, final GameTable table, final RoundJournal.Record record) {
+        if (table.needsSnapshot()) {
+            persistSnapshot(context, table);
+            return;
         }
+        final SharedPreferences prefs = tablesPrefs(context);
+        final ActiveGameHeader header = table.header();
+        final String prefix = prefix(table.getId());
+        writer.submit(null, () -> {
+            table.appendJournal(record);
+            header.writeTo(prefs.edit(), prefix).apply();
+        });
+    }
+
+    /**
+     * Snapshot complet de la table sélectionnée, écrit par le PersistenceWriter.
+     */
+    public void saveGame(Context context) {
+        if (current != null) persistSnapshot(context, current);
+    }
+
+    /**
+     * Les snapshots successifs d'une même table encore en attente sont fusionnés.
+     */
+    private void persistSnapshot(Context context, final GameTable table) {
+        final GameSnapshot snapshot = table.takeSnapshot();
+        final ActiveGameHeader header = table.header();
+        final SharedPreferences prefs = tablesPrefs(context);
+        final String prefix = prefix(table.getId());
+        writer.submit("snapshot:" + table.getId(), () -> {
+            if (table.writeSnapshot(snapshot)) header.writeTo(prefs.edit(), prefix).commit();
+        });
+    }
+
+    /**
+     * Bloque jusqu'à ce que toutes les écritures en attente soient appliquées (onStop).
+     */
+    public void flush() {
+        writer.flush();
     }
 
+    /**
+     * Ferme la table sélectionnée (partie terminée ou abandonnée) et supprime ses fichiers ;
+     * la table la plus récemment utilisée parmi les autres devient la table sélectionnée.
+     */
     public void clearCurrentGame(Context context) {
-        isGameActive = false;
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        prefs.edit().remove(KEY_ACTIVE).remove(KEY_CONFIG).remove(KEY_PLAYERS).remove(KEY_ROUND).remove(KEY_STARTER_INDEX).apply();
+        loadIndex(context);
+        if (currentId == null) return;
+        final String id = currentId;
+        resident.remove(id);
+        tableIds.remove(id);
+        current = null;
+        currentId = fallbackTableId();
+        if (currentId != null) {
+            GameTable next = resident.get(currentId);
+            if (next != null) select(context, next); // Sinon relue par ensureGameLoaded
+        }
+        writeIndex(context);
+        deleteTable(context, id);
+    }
+
+    /**
+     * Ferme toutes les tables et supprime leurs fichiers (jeu de données des benchmarks).
+     */
+    public void clearAllTables(Context context) {
+        loadIndex(context);
+        for (String id : tableIds) deleteTable(context, id);
+        tableIds.clear();
+        resident.clear();
+        current = null;
+        currentId = null;
+        writeIndex(context);
+    }
+
+    private void deleteTable(Context context, final String id) {
+        final SharedPreferences prefs = tablesPrefs(context);
+        final File dir = tableDir(context, id);
+        writer.submit(null, () -> {
+            ActiveGameHeader.NONE.writeTo(prefs.edit(), prefix(id)).commit();
+            new SnapshotStore(dir).delete();
+            new RoundJournal(dir).clear();
+            dir.delete();
+        });
     }
     
-    public void saveToHistory(Context context, String imagePath) {
-        if (currentPlayers == null || currentPlayers.isEmpty()) return;
-        
+    /**
+     * Base d'historique, avec migration unique de l'ancien tableau JSON KEY_HISTORY.
+     */
+    private synchronized HistoryDatabase getHistoryDb(Context context) {
+        HistoryDatabase db = HistoryDatabase.getInstance(context);
         SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        String historyStr = prefs.getString(KEY_HISTORY, "[]");
+        if (prefs.contains(KEY_HISTORY)) {
+            try {
+                db.importLegacy(new JSONArray(prefs.getString(KEY_HISTORY, "[]")));
+                prefs.edit().remove(KEY_HISTORY).apply();
+            } catch (JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Enregistre la partie courante dans l'historique. Idempotent : les appels répétés
+     * pour la même partie mettent à jour son entrée (clé = identifiant de partie).
+     */
+    public void saveToHistory(Context context, String imagePath) {
+        if (current == null || current.game.getPlayers().isEmpty()) return;
+
+        final Context appContext = context.getApplicationContext();
+        final GameTable table = current;
+        final int seq = table.getJournalSeq();
+        final GameSnapshot snapshot = table.game.snapshot(0);
+        final long date = System.currentTimeMillis();
+        writer.submit("history:" + snapshot.gameId, () -> {
+            if (writeHistoryEntry(appContext, snapshot, imagePath, date)) table.markSavedToHistory(seq);
+        });
+    }
+
+    /**
+     * @return false si l'entrée n'a pas pu être écrite
+     */
+    private boolean writeHistoryEntry(Context context, GameSnapshot snapshot, String imagePath, long date) {
         try {
-            JSONArray history = new JSONArray(historyStr);
             JSONObject entry = new JSONObject();
+            entry.put("game_id", snapshot.gameId);
             
-            Player winner = getWinner();
+            Player winner = snapshot.getWinner();
             entry.put("winner", winner.getName());
             entry.put("winner_score", winner.getScore());
-            entry.put("date", System.currentTimeMillis());
+            entry.put("date", date);
             entry.put("image_path", imagePath);
-            if (currentConfig != null) {
-                entry.put("game_name", currentConfig.gameName);
+            if (snapshot.config != null) {
+                entry.put("game_name", snapshot.config.gameName);
             }
             
             // Save full players list (includes round scores)
             JSONArray playersArr = new JSONArray();
-            for (Player p : currentPlayers) {
+            for (Player p : snapshot.players) {
                 playersArr.put(p.toJSON());
             }
             entry.put("players", playersArr);
             
             // Save config for reference
-            if (currentConfig != null) {
-                entry.put("config", currentConfig.toJSON());
+            if (snapshot.config != null) {
+                entry.put("config", snapshot.config.toJSON());
             }
             
-            history.put(entry);
-            
-            prefs.edit().putString(KEY_HISTORY, history.toString()).apply();
+            return getHistoryDb(context).upsertGame(entry) >= 0;
         } catch (JSONException e) {
             e.printStackTrace();
+            return false;
         }
     }
     
     public List<JSONObject> getHistory(Context context) {
-         SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-         String historyStr = prefs.getString(KEY_HISTORY, "[]");
-         List<JSONObject> list = new ArrayList<>();
-         try {
-             JSONArray history = new JSONArray(historyStr);
-             for(int i=history.length()-1; i>=0; i--) { // Newest first
-                 JSONObject obj = history.getJSONObject(i);
-                 if (obj.has("winner") && obj.has("date")) { // Validation
-                     list.add(obj);
-                 }
-             }
-         } catch(JSONException e) {
-             e.printStackTrace();
-         }
-         return list;
+        return getHistory(context, -1, 0);
+    }
+
+    /**
+     * Parties archivées, les plus récentes d'abord.
+     * @param limit nombre maximum d'entrées (négatif = toutes)
+     */
+    public List<JSONObject> getHistory(Context context, int limit, int offset) {
+        return getHistory(context, HistoryQuery.ALL, limit, offset);
+    }
+
+    /**
+     * Parties correspondant à la requête (recherche, filtres et tri indexés). Thread de fond uniquement.
+     */
+    public List<JSONObject> getHistory(Context context, HistoryQuery query, int limit, int offset) {
+        writer.flush();
+        return getHistoryDb(context).queryGames(query, limit, offset);
+    }
+
+    public int getHistoryCount(Context context, HistoryQuery query) {
+        writer.flush();
+        return getHistoryDb(context).getGameCount(query);
+    }
+
+    /**
+     * Scores de manche passés d'un joueur du registre (historique et archive), au plus limit.
+     * Thread de fond uniquement.
+     */
+    public int[] getRoundSamples(Context context, long playerId, int limit) {
+        writer.flush();
+        return getHistoryDb(context).queryRoundSamples(playerId, limit);
+    }
+
+    /**
+     * Une partie de l'historique par son identifiant, ou null. Thread de fond uniquement.
+     */
+    public JSONObject getHistoryGame(Context context, String gameId) {
+        writer.flush();
+        return getHistoryDb(context).queryGame(gameId);
+    }
+
+    /**
+     * Base d'historique à jour des écritures en attente (export / import). Thread de fond uniquement.
+     */
+    public HistoryDatabase getHistoryDatabase(Context context) {
+        writer.flush();
+        return getHistoryDb(context.getApplicationContext());
     }
 
+    /**
+     * Registre des joueurs (identifiants stables, alias, fusion). Thread de fond uniquement.
+     */
+    public PlayerRegistry getPlayerRegistry(Context context) {
+        writer.flush();
+        return new PlayerRegistry(getHistoryDb(context));
+    }
+
+    /**
+     * Statistiques cumulées des joueurs, maintenues à chaque écriture d'historique.
+     * Thread de fond uniquement.
+     */
+    public List<PlayerStats> getPlayerStats(Context context) {
+        writer.flush();
+        return getHistoryDb(context).queryPlayerStats();
+    }
+
+    public int getHistoryCount(Context context) {
+        writer.flush();
+        return getHistoryDb(context).getGameCount();
+    }
+
+    /**
+     * Supprime l'entrée d'historique de la partie courante,
+     * ou la plus récente si la partie n'a pas d'identifiant.
+     */
     public void deleteLastHistoryEntry(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        String historyStr = prefs.getString(KEY_HISTORY, "[]");
-        try {
-            JSONArray history = new JSONArray(historyStr);
-            if (history.length() > 0) {
-                JSONArray newHistory = new JSONArray();
-                // If newest is first, we remove index 0. If newest is last, we remove history.length()-1.
-                // Current implementation of getHistory returns reversed.
-                // Let's stick to conventional (newest last in string, reversed in getHistory).
-                for (int i = 0; i < history.length() - 1; i++) {
-                    newHistory.put(history.get(i));
+        final Context appContext = context.getApplicationContext();
+        final String gameId = getCurrentGameId();
+        writer.submit(null, () -> {
+            if (gameId != null) {
+                getHistoryDb(appContext).deleteGame(gameId);
+            } else {
+                getHistoryDb(appContext).deleteNewestGame();
+            }
+        });
+    }
+
+    /**
+     * Compacte l'archive de l'historique depuis le thread de l'archiveur : chaque segment est
+     * recopié sur ce thread, puis basculé par une tâche courte du thread d'écriture, si bien que
+     * les écritures de parties et flush() ne sont jamais retenus par toute la passe.
+     * S'arrête entre deux segments dès que {@code cancelled} passe à vrai.
+     * @return le nombre de segments supprimés
+     */
+    public int compactHistoryArchive(Context context, double minLiveRatio, AtomicBoolean cancelled) throws IOException {
+        final HistoryDatabase db = getHistoryDb(context.getApplicationContext());
+        int removed = 0;
+        for (int segment : db.findCompactableSegments(minLiveRatio)) {
+            if (cancelled.get()) break;
+            final HistoryDatabase.SegmentMove move = db.copySegment(segment);
+            final boolean[] deleted = new boolean[1];
+            final CountDownLatch done = new CountDownLatch(1);
+            writer.submit(null, () -> {
+                try {
+                    deleted[0] = db.commitSegmentMove(move);
+                } finally {
+                    done.countDown();
                 }
-                prefs.edit().putString(KEY_HISTORY, newHistory.toString()).apply();
+            });
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Compaction interrompue");
             }
-        } catch (JSONException e) {
-            e.printStackTrace();
+            if (deleted[0]) removed++;
         }
+        return removed;
     }
 
-    public boolean isGameActive() { return isGameActive; }
-    public GameConfig getCurrentConfig() { return currentConfig; }
-    public List<Player> getPlayers() { return currentPlayers; }
-    public int getCurrentRound() { return currentRound; }
+    public boolean isGameActive() { return current != null; }
+    public GameConfig getCurrentConfig() { return current != null ? current.game.getConfig() : null; }
+    public List<Player> getPlayers() { return current != null ? current.game.getPlayers() : null; }
+    public int getCurrentRound() { return current != null ? current.game.getRound() : 1; }
+    public int getPlayedRounds() { return current != null ? current.game.getPlayedRounds() : 0; }
+    public int[] getRoundScores(int roundIndex) { return current != null ? current.game.getRoundScores(roundIndex) : null; }
+    public String getCurrentGameId() { return current != null ? current.getId() : null; }
     
     public Player getWinner() {
-        if (currentPlayers == null || currentPlayers.isEmpty()) return null;
-        Player winner = currentPlayers.get(0);
-        for (Player p : currentPlayers) {
-            if (p.getScore() < winner.getScore()) {
-                winner = p;
-            }
-        }
-        return winner;
+        return current != null ? current.game.getWinner() : null;
     }
 }
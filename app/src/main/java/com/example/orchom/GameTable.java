@@ -0,0 +1,217 @@
+package com.example.orchom;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Une table : la partie en cours (GameEngine), son journal de manches et son snapshot
+ * dans un dossier à elle, et sa pile d'annulation. État isolé des autres tables ;
+ * GameManager en garde plusieurs en mémoire et décharge les inactives sur disque.
+ *
+ * Appelée depuis le thread principal, sauf appendJournal / writeSnapshot (thread d'écriture).
+ */
+final class GameTable {
+
+    static final int SNAPSHOT_INTERVAL = 25;
+    private static final int MAX_UNDO = 50;
+
+    private static final class UndoEntry {
+        final int roundIndex;      // Manche corrigée, ou -1 pour une manche validée
+        final int[] previousScores; // Scores remplacés (correction uniquement)
+        final int previousRound;
+        final int previousStarter;
+
+        UndoEntry(int roundIndex, int[] previousScores, int previousRound, int previousStarter) {
+            this.roundIndex = roundIndex;
+            this.previousScores = previousScores;
+            this.previousRound = previousRound;
+            this.previousStarter = previousStarter;
+        }
+    }
+
+    final GameEngine game;
+    private final SnapshotStore store;
+    private final RoundJournal journal;
+    // journalSeq = dernière entrée journalisée, snapshotSeq = couverte par le snapshot
+    private int journalSeq;
+    private int snapshotSeq;
+    private long lastModified;
+    private long lastUsed;
+    // Entrée de journal couverte par l'historique (écrite par le thread d'écriture), -1 si aucune
+    private volatile int historySeq = -1;
+    private final AtomicBoolean journalFailed = new AtomicBoolean(false);
+    // Actions annulables de la session, la plus récente en tête
+    private final ArrayDeque<UndoEntry> undoStack = new ArrayDeque<>();
+
+    private GameTable(GameEngine game, SnapshotStore store, RoundJournal journal, int seq, long lastModified) {
+        this.game = game;
+        this.store = store;
+        this.journal = journal;
+        this.journalSeq = seq;
+        this.snapshotSeq = seq;
+        this.lastModified = lastModified;
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * Nouvelle table dans dir ; rien n'est écrit avant le premier snapshot.
+     */
+    static GameTable create(File dir, GameEngine game) {
+        return new GameTable(game, new SnapshotStore(dir), new RoundJournal(dir), 0, System.currentTimeMillis());
+    }
+
+    /**
+     * Relit une table depuis dir : snapshot puis journal. Null si le snapshot est absent ou illisible.
+     */
+    static GameTable restore(File dir, long lastModified, Random random) {
+        return restore(new SnapshotStore(dir), new RoundJournal(dir), null, lastModified, random);
+    }
+
+    /**
+     * @param fallback état de départ si le snapshot n'existe pas (ancien format JSON), ou null
+     */
+    static GameTable restore(SnapshotStore store, RoundJournal journal, GameSnapshot fallback,
+                             long lastModified, Random random) {
+        GameSnapshot snapshot = fallback;
+        if (store.exists()) {
+            try {
+                snapshot = GameCodec.decodeSnapshot(store.read());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+        if (snapshot == null) return null;
+        GameTable table = new GameTable(GameEngine.fromSnapshot(snapshot, random), store, journal,
+                snapshot.journalSeq, lastModified);
+        table.replayJournal();
+        return table.game.getConfig() != null && !table.game.getPlayers().isEmpty() ? table : null;
+    }
+
+    /**
+     * Rejoue les manches et corrections journalisées après le snapshot, dans l'ordre.
+     * S'arrête au premier trou de séquence ou enregistrement incohérent.
+     */
+    private void replayJournal() {
+        for (RoundJournal.Record r : journal.readAfter(snapshotSeq)) {
+            if (r.seq != journalSeq + 1) break;
+            try {
+                if (r.kind == RoundJournal.Record.KIND_EDIT) {
+                    game.editRound(r.round, r.scores);
+                } else if (r.kind == RoundJournal.Record.KIND_UNDO) {
+                    game.removeLastRound(r.round, r.starterIndex);
+                } else {
+                    if (r.scores.length != game.getPlayers().size()) break;
+                    game.replayRound(r.scores, r.round, r.starterIndex);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                break;
+            }
+            journalSeq = r.seq;
+        }
+    }
+
+    // --- Actions (thread principal), chacune renvoie l'enregistrement à journaliser ---
+
+    RoundJournal.Record applyRound(int[] scores) {
+        pushUndo(new UndoEntry(-1, null, game.getRound(), game.getStarterIndex()));
+        game.applyRound(scores);
+        return touch(new RoundJournal.Record(++journalSeq, game.getRound(), game.getStarterIndex(), scores.clone()));
+    }
+
+    RoundJournal.Record editRound(int roundIndex, int[] scores) {
+        int[] previous = game.editRound(roundIndex, scores);
+        pushUndo(new UndoEntry(roundIndex, previous, game.getRound(), game.getStarterIndex()));
+        return touch(RoundJournal.Record.edit(++journalSeq, roundIndex, scores.clone()));
+    }
+
+    boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    /**
+     * @return l'annulation à journaliser, ou null s'il n'y a rien à annuler
+     */
+    RoundJournal.Record undo() {
+        UndoEntry last = undoStack.poll();
+        if (last == null) return null;
+        if (last.roundIndex >= 0) {
+            game.editRound(last.roundIndex, last.previousScores);
+            return touch(RoundJournal.Record.edit(++journalSeq, last.roundIndex, last.previousScores));
+        }
+        game.removeLastRound(last.previousRound, last.previousStarter);
+        return touch(RoundJournal.Record.undo(++journalSeq, last.previousRound, last.previousStarter));
+    }
+
+    private RoundJournal.Record touch(RoundJournal.Record record) {
+        lastModified = System.currentTimeMillis();
+        return record;
+    }
+
+    private void pushUndo(UndoEntry entry) {
+        undoStack.push(entry);
+        if (undoStack.size() > MAX_UNDO) undoStack.removeLast();
+    }
+
+    /**
+     * Snapshot complet plutôt qu'une ligne de journal : toutes les SNAPSHOT_INTERVAL entrées,
+     * ou après un échec d'écriture du journal.
+     */
+    boolean needsSnapshot() {
+        return journalSeq - snapshotSeq >= SNAPSHOT_INTERVAL || journalFailed.getAndSet(false);
+    }
+
+    /**
+     * État à écrire ; le snapshot couvre désormais tout le journal.
+     */
+    GameSnapshot takeSnapshot() {
+        snapshotSeq = journalSeq;
+        return game.snapshot(journalSeq);
+    }
+
+    ActiveGameHeader header() {
+        return new ActiveGameHeader(true, game.getGameId(), game.getConfig().gameName, game.getRound(), lastModified);
+    }
+
+    String getId() { return game.getGameId(); }
+    long getLastUsed() { return lastUsed; }
+    void markUsed() { lastUsed = System.currentTimeMillis(); }
+    int getJournalSeq() { return journalSeq; }
+
+    /**
+     * Vrai si l'historique contient la partie dans son état actuel (aucune action depuis
+     * l'enregistrement). Perdu au déchargement : une table relue n'est jamais considérée enregistrée.
+     */
+    boolean isSavedToHistory() { return historySeq == journalSeq; }
+
+    // --- Thread d'écriture ---
+
+    void markSavedToHistory(int seq) { historySeq = seq; }
+
+    void appendJournal(RoundJournal.Record record) {
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            e.printStackTrace();
+            journalFailed.set(true); // Repli : snapshot complet à la prochaine manche
+        }
+    }
+
+    /**
+     * Le journal est vidé une fois le snapshot sur disque.
+     * @return false si l'écriture a échoué (le journal reste la référence)
+     */
+    boolean writeSnapshot(GameSnapshot snapshot) {
+        try {
+            store.write(GameCodec.encodeSnapshot(snapshot));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        journal.clear();
+        return true;
+    }
+}
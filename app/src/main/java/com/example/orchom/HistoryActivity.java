@@ -1,20 +1,55 @@
 package com.example.orchom;
 
+import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
+import android.widget.ProgressBar;
+import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.core.content.FileProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.orchom.databinding.ContentHistoryBinding;
-import org.json.JSONObject;
-import java.util.List;
 
 public class HistoryActivity extends BaseActivity {
 
     private ContentHistoryBinding binding;
+    private HistoryPager pager;
+    private PlayerStatsAdapter statsAdapter;
+    private boolean statsLoaded = false;
+    private HistoryTransfer transfer;
+
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+        new ActivityResultContracts.CreateDocument(HistoryTransfer.MIME_JSON),
+        uri -> {
+            if (uri != null) exportTo(uri, HistoryTransfer.MIME_JSON);
+        }
+    );
+
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+        new ActivityResultContracts.CreateDocument(HistoryTransfer.MIME_CSV),
+        uri -> {
+            if (uri != null) exportTo(uri, HistoryTransfer.MIME_CSV);
+        }
+    );
+
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+        new ActivityResultContracts.OpenDocument(),
+        uri -> {
+            if (uri != null) importFrom(uri);
+        }
+    );
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         binding = ContentHistoryBinding.inflate(getLayoutInflater(), baseBinding.container, true);
+        transfer = new HistoryTransfer(this);
 
         loadHistory();
     }
@@ -25,38 +60,327 @@ public class HistoryActivity extends BaseActivity {
     }
 
     private void loadHistory() {
-        List<JSONObject> history = GameManager.getInstance().getHistory(this);
-        
-        if (history.isEmpty()) {
-            binding.emptyStateText.setVisibility(View.VISIBLE);
-            binding.historyRecyclerView.setVisibility(View.GONE);
-            binding.tabLayout.setVisibility(View.GONE);
-        } else {
-            binding.emptyStateText.setVisibility(View.GONE);
-            binding.historyRecyclerView.setVisibility(View.VISIBLE);
-            binding.tabLayout.setVisibility(View.VISIBLE);
-            
-            binding.historyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-            HistoryAdapter adapter = new HistoryAdapter(this, history, false);
-            binding.historyRecyclerView.setAdapter(adapter);
-
-            binding.tabLayout.addOnTabSelectedListener(new com.google.android.material.tabs.TabLayout.OnTabSelectedListener() {
-                @Override
-                public void onTabSelected(com.google.android.material.tabs.TabLayout.Tab tab) {
-                    boolean isReadOnly = tab.getPosition() == 1;
-                    binding.historyRecyclerView.setAdapter(new HistoryAdapter(HistoryActivity.this, history, isReadOnly));
+        binding.emptyStateText.setVisibility(View.GONE);
+        binding.historyRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+
+        pager = new HistoryPager(this);
+        HistoryAdapter adapter = new HistoryAdapter(this, pager, false);
+        binding.historyRecyclerView.setAdapter(adapter);
+
+        pager.setListener(new HistoryPager.Listener() {
+            @Override
+            public void onCountLoaded(int count) {
+                if (binding == null) return;
+                boolean isEmpty = count == 0;
+                boolean searching = !pager.getQuery().isEmpty();
+                binding.emptyStateText.setText(searching ? "Aucune partie ne correspond" : "Aucun historique disponible");
+                boolean statsTab = binding.tabLayout.getSelectedTabPosition() == 2;
+                binding.emptyStateText.setVisibility(isEmpty && !statsTab ? View.VISIBLE : View.GONE);
+                binding.historyRecyclerView.setVisibility(isEmpty || statsTab ? View.GONE : View.VISIBLE);
+                // Sans aucune partie, ni recherche ni onglets
+                boolean noHistory = isEmpty && !searching;
+                binding.tabLayout.setVisibility(noHistory ? View.GONE : View.VISIBLE);
+                binding.searchLayout.setVisibility(noHistory ? View.GONE : View.VISIBLE);
+                adapter.notifyDataSetChanged();
+            }
+
+            @Override
+            public void onPageLoaded(int start, int itemCount) {
+                adapter.notifyItemRangeChanged(start, itemCount);
+            }
+        });
+
+        binding.tabLayout.addOnTabSelectedListener(new com.google.android.material.tabs.TabLayout.OnTabSelectedListener() {
+            @Override
+            public void onTabSelected(com.google.android.material.tabs.TabLayout.Tab tab) {
+                boolean showStats = tab.getPosition() == 2;
+                binding.historyRecyclerView.setVisibility(showStats ? View.GONE : View.VISIBLE);
+                binding.statsRecyclerView.setVisibility(showStats ? View.VISIBLE : View.GONE);
+                if (showStats) {
+                    loadStats();
+                } else {
+                    adapter.setReadOnly(tab.getPosition() == 1);
                 }
-                @Override
-                public void onTabUnselected(com.google.android.material.tabs.TabLayout.Tab tab) {}
-                @Override
-                public void onTabReselected(com.google.android.material.tabs.TabLayout.Tab tab) {}
+            }
+            @Override
+            public void onTabUnselected(com.google.android.material.tabs.TabLayout.Tab tab) {}
+            @Override
+            public void onTabReselected(com.google.android.material.tabs.TabLayout.Tab tab) {}
+        });
+
+        binding.searchInput.addTextChangedListener(new android.text.TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override
+            public void afterTextChanged(android.text.Editable s) {
+                // Chaque frappe : une requête indexée, les réponses périmées sont ignorées
+                pager.setQuery(pager.getQuery().withSearch(s.toString()));
+                binding.historyRecyclerView.scrollToPosition(0);
+            }
+        });
+
+        binding.filterButton.setOnClickListener(v -> showFilters());
+
+        pager.start();
+    }
+
+    /**
+     * Le registre est lu hors du thread UI, puis la boîte s'ouvre ; les filtres
+     * s'appliquent comme la recherche (requête indexée, réponses périmées ignorées).
+     */
+    private void showFilters() {
+        binding.filterButton.setEnabled(false);
+        final android.content.Context appContext = getApplicationContext();
+        background.load("filters", () -> GameManager.getInstance().getPlayerRegistry(appContext).list(), players -> {
+            if (binding == null) return;
+            binding.filterButton.setEnabled(true);
+            new HistoryFilterDialog(this, pager.getQuery(), players).show(filters -> {
+                pager.setQuery(pager.getQuery().withFilters(filters));
+                updateFilterButton();
+                binding.historyRecyclerView.scrollToPosition(0);
+            });
+        });
+    }
+
+    private void updateFilterButton() {
+        int n = pager.getQuery().getFilterCount();
+        binding.filterButton.setText(n > 0 ? "FILTRES (" + n + ")" : "FILTRES");
+    }
+
+    /**
+     * Une ligne par joueur, déjà agrégée : indépendant de la taille de l'historique.
+     */
+    private void loadStats() {
+        if (statsLoaded) return;
+        statsLoaded = true;
+        statsAdapter = new PlayerStatsAdapter(this::showPlayerActions);
+        binding.statsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        binding.statsRecyclerView.setAdapter(statsAdapter);
+
+        final android.content.Context appContext = getApplicationContext();
+        final PlayerStatsAdapter adapter = statsAdapter;
+        background.load("stats", () -> GameManager.getInstance().getPlayerStats(appContext), stats -> {
+            if (binding != null) adapter.setStats(stats);
+        });
+    }
+
+    /**
+     * Renommer un joueur, lui rattacher un autre nom saisi, ou le fusionner avec un autre joueur
+     * (même personne sous deux noms) : parties, statistiques et recherche suivent.
+     */
+    private void showPlayerActions(PlayerStats player) {
+        new AlertDialog.Builder(this)
+                .setTitle(player.name)
+                .setItems(new String[]{"Renommer", "Ajouter un autre nom", "Fusionner avec…"}, (d, which) -> {
+                    if (which == 0) {
+                        askName("Renommer " + player.name, player.name, name ->
+                                updateRegistry(registry -> registry.rename(player.playerId, name),
+                                        player.name + " renommé en " + name,
+                                        "« " + name + " » est déjà un autre joueur : utilisez Fusionner"));
+                    } else if (which == 1) {
+                        askName("Autre nom de " + player.name, "", name ->
+                                updateRegistry(registry -> registry.addAlias(player.playerId, name),
+                                        "« " + name + " » désigne désormais " + player.name,
+                                        "« " + name + " » est déjà un autre joueur : utilisez Fusionner"));
+                    } else {
+                        chooseMergeTarget(player);
+                    }
+                })
+                .show();
+    }
+
+    private interface NameCallback {
+        void onName(String name);
+    }
+
+    private void askName(String title, String initial, NameCallback callback) {
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        android.widget.FrameLayout frame = new android.widget.FrameLayout(this);
+        frame.setPadding(padding, padding / 2, padding, 0);
+        android.widget.EditText input = new android.widget.EditText(this);
+        input.setSingleLine(true);
+        input.setText(initial);
+        input.setSelection(initial.length());
+        frame.addView(input);
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setView(frame)
+                .setPositiveButton("Valider", (d, w) -> {
+                    String name = input.getText().toString().trim();
+                    if (!name.isEmpty()) callback.onName(name);
+                })
+                .setNegativeButton("Annuler", null)
+                .show();
+    }
+
+    /**
+     * Le registre est lu hors du thread UI ; la fusion est confirmée car irréversible.
+     */
+    private void chooseMergeTarget(PlayerStats player) {
+        final android.content.Context appContext = getApplicationContext();
+        final long playerId = player.playerId;
+        background.load("players", () -> {
+            java.util.List<PlayerRegistry.Entry> list = new java.util.ArrayList<>();
+            for (PlayerRegistry.Entry e : GameManager.getInstance().getPlayerRegistry(appContext).list()) {
+                if (e.id != playerId) list.add(e);
+            }
+            return list;
+        }, others -> {
+            if (binding == null) return;
+            if (others.isEmpty()) {
+                Toast.makeText(this, "Aucun autre joueur", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            String[] names = new String[others.size()];
+            for (int i = 0; i < names.length; i++) names[i] = others.get(i).displayName;
+            new AlertDialog.Builder(this)
+                    .setTitle("Fusionner " + player.name + " avec…")
+                    .setItems(names, (d, which) -> {
+                        PlayerRegistry.Entry into = others.get(which);
+                        new AlertDialog.Builder(this)
+                                .setTitle("Fusionner ?")
+                                .setMessage("Les parties de " + player.name + " seront attribuées à "
+                                        + into.displayName + ". Cette action est définitive.")
+                                .setPositiveButton("Fusionner", (d2, w) -> updateRegistry(
+                                        registry -> registry.merge(player.playerId, into.id),
+                                        player.name + " fusionné avec " + into.displayName,
+                                        player.name + " et " + into.displayName + " ont joué la même partie : fusion impossible"))
+                                .setNegativeButton("Annuler", null)
+                                .show();
+                    })
+                    .show();
+        });
+    }
+
+    private interface RegistryUpdate {
+        boolean apply(PlayerRegistry registry);
+    }
+
+    /**
+     * Modification du registre en arrière-plan, puis statistiques et liste rechargées.
+     */
+    private void updateRegistry(RegistryUpdate update, String doneMessage, String refusedMessage) {
+        final android.content.Context appContext = getApplicationContext();
+        background.update("registry", () -> update.apply(GameManager.getInstance().getPlayerRegistry(appContext)), applied -> {
+            if (binding == null) return;
+            Toast.makeText(this, applied ? doneMessage : refusedMessage, Toast.LENGTH_SHORT).show();
+            statsLoaded = false;
+            pager.reload();
+            if (binding.tabLayout.getSelectedTabPosition() == 2) loadStats();
+        });
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.history_menu, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(@NonNull MenuItem item) {
+        int id = item.getItemId();
+        if (id == R.id.action_export) {
+            chooseFormat("Exporter l'historique", csv -> {
+                if (csv) exportCsvLauncher.launch("orchom-historique.csv");
+                else exportJsonLauncher.launch("orchom-historique.json");
             });
+            return true;
+        } else if (id == R.id.action_import) {
+            importLauncher.launch(new String[]{HistoryTransfer.MIME_JSON, HistoryTransfer.MIME_CSV,
+                    "text/comma-separated-values", "text/plain"});
+            return true;
+        } else if (id == R.id.action_share) {
+            chooseFormat("Partager l'historique", csv -> share(csv ? HistoryTransfer.MIME_CSV : HistoryTransfer.MIME_JSON));
+            return true;
         }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private interface FormatCallback {
+        void onFormat(boolean csv);
+    }
+
+    private void chooseFormat(String title, FormatCallback callback) {
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setItems(new String[]{"JSON (sauvegarde complète)", "CSV (tableur, sans photo)"}, (d, which) -> callback.onFormat(which == 1))
+                .show();
+    }
+
+    private void exportTo(Uri uri, String mimeType) {
+        transfer.exportTo(uri, mimeType, progressListener("Export…", (games, file) ->
+                Toast.makeText(this, games + " parties exportées", Toast.LENGTH_SHORT).show()));
+    }
+
+    private void importFrom(Uri uri) {
+        transfer.importFrom(uri, null, progressListener("Import…", (games, file) -> {
+            Toast.makeText(this, games + " parties importées", Toast.LENGTH_SHORT).show();
+            statsLoaded = false;
+            pager.reload();
+            if (binding.tabLayout.getSelectedTabPosition() == 2) loadStats();
+        }));
+    }
+
+    private void share(String mimeType) {
+        transfer.exportForSharing(mimeType, progressListener("Préparation…", (games, file) -> {
+            Uri uri = FileProvider.getUriForFile(this, getPackageName() + ".fileprovider", file);
+            Intent send = new Intent(Intent.ACTION_SEND)
+                    .setType(mimeType)
+                    .putExtra(Intent.EXTRA_STREAM, uri)
+                    .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            startActivity(Intent.createChooser(send, "Partager l'historique"));
+        }));
+    }
+
+    private interface CompleteCallback {
+        void onComplete(int games, java.io.File file);
+    }
+
+    /**
+     * Boîte de progression annulable ; les callbacks de HistoryTransfer arrivent sur le thread principal.
+     */
+    private HistoryTransfer.Listener progressListener(String title, CompleteCallback done) {
+        final ProgressBar bar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        bar.setMax(100);
+        int padding = (int) (24 * getResources().getDisplayMetrics().density);
+        bar.setPadding(padding, padding / 2, padding, 0);
+        final AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setView(bar)
+                .setCancelable(false)
+                .setNegativeButton("Annuler", (d, w) -> transfer.cancel())
+                .show();
+        return new HistoryTransfer.Listener() {
+            @Override
+            public void onProgress(int percent) {
+                bar.setProgress(percent);
+            }
+
+            @Override
+            public void onComplete(int games, java.io.File file) {
+                dialog.dismiss();
+                if (binding != null) done.onComplete(games, file);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                dialog.dismiss();
+                if (binding != null) {
+                    Toast.makeText(HistoryActivity.this, "Échec : fichier illisible ou transfert annulé", Toast.LENGTH_LONG).show();
+                    // Un import interrompu a pu enregistrer des lots
+                    pager.reload();
+                }
+            }
+        };
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (transfer != null) transfer.shutdown();
+        if (pager != null) pager.close();
         binding = null;
     }
 }
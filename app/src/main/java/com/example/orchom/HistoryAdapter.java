@@ -1,31 +1,34 @@
 package com.example.orchom;
 
 import android.content.Context;
-import android.content.Intent;
-import android.text.format.DateFormat;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import java.util.Date;
-import java.util.List;
 
 public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHolder> {
 
-    private List<JSONObject> historyList;
+    private final HistoryPager pager;
+    private final ThumbnailLoader thumbnailLoader;
     private Context context;
     private boolean isReadOnly = false;
 
-    public HistoryAdapter(Context context, List<JSONObject> historyList, boolean isReadOnly) {
+    public HistoryAdapter(Context context, HistoryPager pager, boolean isReadOnly) {
         this.context = context;
-        this.historyList = historyList;
+        this.pager = pager;
+        this.thumbnailLoader = ThumbnailLoader.getInstance(context);
         this.isReadOnly = isReadOnly;
     }
 
+    public void setReadOnly(boolean readOnly) {
+        if (this.isReadOnly != readOnly) {
+            this.isReadOnly = readOnly;
+            notifyDataSetChanged();
+        }
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -36,125 +39,67 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHold
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        JSONObject entry = historyList.get(position);
-        
-        String winner = entry.optString("winner", "Inconnu");
-        String gameName = entry.optString("game_name", "Partie sans nom");
-        int winnerScore = entry.optInt("winner_score", 0);
-        long timestamp = entry.optLong("date", 0);
-        String imagePath = entry.optString("image_path", null);
-        JSONArray playersArr = entry.optJSONArray("players");
-        
-        holder.winnerNameText.setText("🏆 " + winner + " (" + winnerScore + " pts)");
-        holder.gameNameText.setText(gameName);
-        
-        if (timestamp > 0) {
-            String dateStr = DateFormat.format("dd MMM yyyy, HH:mm", new Date(timestamp)).toString();
-            holder.dateText.setText(dateStr);
-        } else {
-            holder.dateText.setText("");
+        HistoryRow row = pager.getItem(position);
+        if (row == null) {
+            bindPlaceholder(holder);
+            return;
         }
 
-        // Image loading optimization
-        if (imagePath != null && !imagePath.isEmpty()) {
-            java.io.File file = new java.io.File(imagePath);
-            if (file.exists()) {
-                // Optimized loading
-                android.graphics.Bitmap bitmap = decodeSampledBitmapFromFile(imagePath, 300, 300);
-                if (bitmap != null) {
-                    holder.historyGameImage.setImageBitmap(bitmap);
-                    holder.historyGameImage.setVisibility(View.VISIBLE);
-                } else {
-                    holder.historyGameImage.setVisibility(View.GONE);
-                }
-            } else {
-                holder.historyGameImage.setVisibility(View.GONE);
-            }
-        } else {
-            holder.historyGameImage.setVisibility(View.GONE);
-        }
+        holder.winnerNameText.setText(row.winnerText);
+        holder.gameNameText.setText(row.gameName);
+        holder.dateText.setText(row.dateText);
+
+        // Miniature chargée en arrière-plan (cache mémoire + disque)
+        thumbnailLoader.load(holder.historyGameImage, row.imagePath);
  
-        if (isReadOnly) {
-            holder.replayActionText.setVisibility(View.GONE);
+        // Rejeu en lecture seule : proposé dans les deux onglets dès que les manches sont connues
+        if (row.canReplay) {
+            holder.replayActionText.setVisibility(View.VISIBLE);
+            holder.replayActionText.setOnClickListener(v ->
+                    context.startActivity(ReplayActivity.newIntent(context, row.gameId)));
         } else {
-            holder.replayActionText.setVisibility(View.GONE); // Always gone as per request
+            holder.replayActionText.setVisibility(View.GONE);
+            holder.replayActionText.setOnClickListener(null);
         }
- 
-        if (playersArr != null) {
-            StringBuilder sb = new StringBuilder("Joueurs: ");
-            StringBuilder roundDetails = new StringBuilder("Par Round: ");
-            Player loser = null;
-            int maxScore = -1;
- 
-            for (int i = 0; i < playersArr.length(); i++) {
-                JSONObject pJson = playersArr.optJSONObject(i);
-                if (pJson != null) {
-                    String name = pJson.optString("name");
-                    int score = pJson.optInt("score");
-                    sb.append(name).append(" (").append(score).append(")");
-                    
-                    // Round scores
-                    JSONArray rArr = pJson.optJSONArray("roundScores");
-                    if (rArr != null) {
-                        roundDetails.append(name).append(": ").append(rArr.toString());
-                        if (i < playersArr.length() - 1) roundDetails.append(" | ");
-                        holder.roundDetailsText.setVisibility(View.VISIBLE);
-                    }
 
-                    if (i < playersArr.length() - 1) sb.append(", ");
-                    
-                    if (score > maxScore) {
-                        maxScore = score;
-                        loser = Player.fromJSON(pJson);
-                    }
-                }
-            }
-            holder.playersSummaryText.setText(sb.toString());
-            holder.roundDetailsText.setText(roundDetails.toString());
-            
-            if (loser != null) {
-                holder.loserText.setText("🔻 Perdant: " + loser.getName() + " (" + loser.getScore() + " pts)");
-                holder.loserText.setVisibility(View.VISIBLE);
-            } else {
-                holder.loserText.setVisibility(View.GONE);
-            }
+        holder.playersSummaryText.setText(row.playersSummary);
+        if (row.roundDetails != null) {
+            holder.roundDetailsText.setText(row.roundDetails);
+            holder.roundDetailsText.setVisibility(View.VISIBLE);
         } else {
-            holder.playersSummaryText.setText("Détails indisponibles");
-            holder.loserText.setVisibility(View.GONE);
             holder.roundDetailsText.setVisibility(View.GONE);
         }
+        if (row.loserText != null) {
+            holder.loserText.setText(row.loserText);
+            holder.loserText.setVisibility(View.VISIBLE);
+        } else {
+            holder.loserText.setVisibility(View.GONE);
+        }
     }
  
- 
-    private android.graphics.Bitmap decodeSampledBitmapFromFile(String path, int reqWidth, int reqHeight) {
-        final android.graphics.BitmapFactory.Options options = new android.graphics.BitmapFactory.Options();
-        options.inJustDecodeBounds = true;
-        android.graphics.BitmapFactory.decodeFile(path, options);
-
-        options.inSampleSize = calculateInSampleSize(options, reqWidth, reqHeight);
-
-        options.inJustDecodeBounds = false;
-        return android.graphics.BitmapFactory.decodeFile(path, options);
+    /**
+     * Ligne affichée tant que la page correspondante est en cours de chargement.
+     */
+    private void bindPlaceholder(ViewHolder holder) {
+        holder.winnerNameText.setText("Chargement…");
+        holder.gameNameText.setText("");
+        holder.dateText.setText("");
+        holder.playersSummaryText.setText("");
+        holder.loserText.setVisibility(View.GONE);
+        holder.roundDetailsText.setVisibility(View.GONE);
+        thumbnailLoader.load(holder.historyGameImage, null);
+        holder.replayActionText.setVisibility(View.GONE);
     }
 
-    private int calculateInSampleSize(android.graphics.BitmapFactory.Options options, int reqWidth, int reqHeight) {
-        final int height = options.outHeight;
-        final int width = options.outWidth;
-        int inSampleSize = 1;
-
-        if (height > reqHeight || width > reqWidth) {
-            final int halfHeight = height / 2;
-            final int halfWidth = width / 2;
-            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
-                inSampleSize *= 2;
-            }
-        }
-        return inSampleSize;
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        thumbnailLoader.cancel(holder.historyGameImage);
     }
 
     @Override
     public int getItemCount() {
-        return historyList.size();
+        return pager.getCount();
     }
     
     // ... (rest of the file)
@@ -0,0 +1,154 @@
+package com.example.orchom;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Politique de rétention de l'historique : les parties plus anciennes que la durée configurée
+ * passent en archive froide (HistoryDatabase.archiveGame) et leur photo est ré-encodée plus petite.
+ * Les segments d'archive devenus creux sont compactés. Exécuté par ArchiveJobService,
+ * uniquement appareil inactif ou en charge.
+ */
+public final class HistoryArchiver {
+
+    private static final String PREF_NAME = "HistoryArchive";
+    private static final String KEY_RETENTION_DAYS = "retention_days";
+    static final int DEFAULT_RETENTION_DAYS = 180;
+
+    static final int JOB_IDLE = 1001;
+    static final int JOB_CHARGING = 1002;
+
+    private static final int BATCH_SIZE = 50;
+    private static final double MIN_LIVE_RATIO = 0.5;
+    private static final int PHOTO_MAX_DIMENSION = 1024;
+    private static final int PHOTO_QUALITY = 70;
+
+    private static final ReentrantLock RUNNING = new ReentrantLock();
+
+    private HistoryArchiver() {}
+
+    public static int getRetentionDays(Context context) {
+        return prefs(context).getInt(KEY_RETENTION_DAYS, DEFAULT_RETENTION_DAYS);
+    }
+
+    public static void setRetentionDays(Context context, int days) {
+        prefs(context).edit().putInt(KEY_RETENTION_DAYS, Math.max(1, days)).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Planifie les deux passes quotidiennes (contraintes JobScheduler cumulatives :
+     * une tâche pour l'inactivité, une pour la charge). Sans effet si déjà planifiées.
+     */
+    public static void schedule(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) return;
+        ComponentName service = new ComponentName(context, ArchiveJobService.class);
+        long period = TimeUnit.DAYS.toMillis(1);
+        if (scheduler.getPendingJob(JOB_IDLE) == null) {
+            scheduler.schedule(new JobInfo.Builder(JOB_IDLE, service)
+                    .setRequiresDeviceIdle(true)
+                    .setPeriodic(period)
+                    .setPersisted(false)
+                    .build());
+        }
+        if (scheduler.getPendingJob(JOB_CHARGING) == null) {
+            scheduler.schedule(new JobInfo.Builder(JOB_CHARGING, service)
+                    .setRequiresCharging(true)
+                    .setPeriodic(period)
+                    .setPersisted(false)
+                    .build());
+        }
+    }
+
+    /**
+     * Archive par lots les parties trop anciennes puis compacte les segments.
+     * S'arrête entre deux parties dès que {@code cancelled} passe à vrai.
+     * Une seule passe à la fois : si les deux tâches démarrent ensemble, la seconde
+     * rend la main aussitôt. Thread de fond uniquement.
+     * @return le nombre de parties archivées
+     */
+    static int run(Context context, AtomicBoolean cancelled) throws IOException {
+        if (!RUNNING.tryLock()) return 0;
+        try {
+            return archive(context, cancelled);
+        } finally {
+            RUNNING.unlock();
+        }
+    }
+
+    private static int archive(Context context, AtomicBoolean cancelled) throws IOException {
+        HistoryDatabase db = HistoryDatabase.getInstance(context);
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(getRetentionDays(context));
+        int archived = 0;
+        while (!cancelled.get()) {
+            Map<Long, String> batch = db.findArchivable(cutoff, BATCH_SIZE);
+            if (batch.isEmpty()) break;
+            int before = archived;
+            for (Map.Entry<Long, String> game : batch.entrySet()) {
+                if (cancelled.get()) return archived;
+                if (db.archiveGame(game.getKey())) {
+                    archived++;
+                    if (game.getValue() != null) compactPhoto(new File(game.getValue()));
+                }
+            }
+            if (archived == before) break; // Lot entièrement modifié entre-temps : on réessaiera
+        }
+        // Après les ajouts de cette passe (jamais en parallèle : un segment tout juste fermé
+        // pourrait contenir un enregistrement pas encore référencé en base)
+        if (!cancelled.get()) GameManager.getInstance().compactHistoryArchive(context, MIN_LIVE_RATIO, cancelled);
+        return archived;
+    }
+
+    /**
+     * Ré-encode la photo d'une partie archivée à une taille et une qualité réduites.
+     * Le fichier n'est remplacé que s'il y gagne ; la miniature se régénère (clé sur lastModified).
+     */
+    private static void compactPhoto(File photo) {
+        if (!photo.isFile()) return;
+        Bitmap bitmap;
+        try {
+            bitmap = ThumbnailLoader.decodeSampledBitmapFromFile(photo.getAbsolutePath(),
+                    PHOTO_MAX_DIMENSION, PHOTO_MAX_DIMENSION);
+        } catch (OutOfMemoryError e) {
+            return;
+        }
+        if (bitmap == null) return;
+        float scale = Math.min(1f, (float) PHOTO_MAX_DIMENSION / Math.max(bitmap.getWidth(), bitmap.getHeight()));
+        if (scale < 1f) {
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap,
+                    Math.round(bitmap.getWidth() * scale), Math.round(bitmap.getHeight() * scale), true);
+            if (scaled != bitmap) bitmap.recycle();
+            bitmap = scaled;
+        }
+        File tmp = new File(photo.getParentFile(), photo.getName() + ".tmp");
+        try {
+            FileOutputStream out = new FileOutputStream(tmp);
+            try {
+                bitmap.compress(Bitmap.CompressFormat.JPEG, PHOTO_QUALITY, out);
+            } finally {
+                out.close();
+            }
+            if (tmp.length() >= photo.length() || !tmp.renameTo(photo)) tmp.delete();
+        } catch (IOException e) {
+            e.printStackTrace();
+            tmp.delete();
+        } finally {
+            bitmap.recycle();
+        }
+    }
+}
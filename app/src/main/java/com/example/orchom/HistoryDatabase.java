@@ -0,0 +1,1149 @@
+package com.example.orchom;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Base SQLite des parties terminées : une ligne par partie, par joueur et par score de manche.
+ * Les entrées sont exposées sous la même forme JSON que l'ancien historique SharedPreferences.
+ */
+public class HistoryDatabase extends SQLiteOpenHelper {
+
+    private static final String DB_NAME = "history.db";
+    private static final int DB_VERSION = 9;
+    private static final String ARCHIVE_DIR = "archive";
+    private static final long ARCHIVE_SEGMENT_BYTES = 1024 * 1024;
+    private static final int EXPORT_BATCH = 50;
+
+    static final String T_GAMES = "games";
+    static final String T_PLAYERS = "game_players";
+    static final String T_ROUNDS = "rounds";
+    static final String T_STATS = "player_stats";
+    static final String T_REGISTRY = "players";
+    static final String T_ALIASES = "player_aliases";
+    static final String T_SEARCH = "search_tokens";
+
+    private static HistoryDatabase instance;
+
+    public static synchronized HistoryDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new HistoryDatabase(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private final ArchiveStore archive;
+    // Lectures de segments (partagé) contre compaction, qui déplace et supprime des segments (exclusif)
+    private final ReentrantReadWriteLock archiveLock = new ReentrantReadWriteLock();
+
+    private HistoryDatabase(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+        archive = new ArchiveStore(new File(context.getFilesDir(), ARCHIVE_DIR), ARCHIVE_SEGMENT_BYTES);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.setForeignKeyConstraintsEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_GAMES + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "game_name TEXT, "
+                + "winner TEXT NOT NULL, "
+                + "winner_score INTEGER NOT NULL, "
+                + "date INTEGER NOT NULL, "
+                + "image_path TEXT, "
+                + "config TEXT, "
+                + "player_count INTEGER NOT NULL, "
+                + "round_count INTEGER NOT NULL, "
+                + "game_uid TEXT, "
+                + "rounds_hash INTEGER, "
+                + "winner_id INTEGER, "
+                + "archive_segment INTEGER, "
+                + "archive_offset INTEGER, "
+                + "archive_length INTEGER)");
+        db.execSQL("CREATE TABLE " + T_PLAYERS + " ("
+                + "game_id INTEGER NOT NULL REFERENCES " + T_GAMES + "(_id) ON DELETE CASCADE, "
+                + "seat INTEGER NOT NULL, "
+                + "name TEXT NOT NULL, "
+                + "color TEXT, "
+                + "score INTEGER NOT NULL, "
+                + "player_id INTEGER REFERENCES " + T_REGISTRY + "(_id), "
+                + "round_count INTEGER NOT NULL DEFAULT 0, "
+                + "round_sum INTEGER NOT NULL DEFAULT 0, "
+                + "round_min INTEGER, "
+                + "round_max INTEGER, "
+                + "PRIMARY KEY (game_id, seat))");
+        db.execSQL("CREATE TABLE " + T_ROUNDS + " ("
+                + "game_id INTEGER NOT NULL REFERENCES " + T_GAMES + "(_id) ON DELETE CASCADE, "
+                + "seat INTEGER NOT NULL, "
+                + "round_index INTEGER NOT NULL, "
+                + "score INTEGER NOT NULL, "
+                + "PRIMARY KEY (game_id, seat, round_index)) WITHOUT ROWID");
+
+        db.execSQL("CREATE INDEX idx_games_date ON " + T_GAMES + "(date)");
+        db.execSQL("CREATE INDEX idx_games_winner ON " + T_GAMES + "(winner COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX idx_games_name ON " + T_GAMES + "(game_name COLLATE NOCASE)");
+        db.execSQL("CREATE UNIQUE INDEX idx_games_uid ON " + T_GAMES + "(game_uid)");
+        PlayerRegistry.createTables(db);
+        db.execSQL("CREATE INDEX idx_players_pid ON " + T_PLAYERS + "(player_id)");
+        createStatsTable(db);
+        createSearchTable(db);
+        createFilterIndexes(db);
+    }
+
+    /**
+     * Index des filtres et tris de l'historique (HistoryQuery). La date en second
+     * critère sert de départage pour les tris.
+     */
+    private static void createFilterIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_games_winner_id ON " + T_GAMES + "(winner_id, date)");
+        db.execSQL("CREATE INDEX idx_games_winner_score ON " + T_GAMES + "(winner_score, date)");
+        db.execSQL("CREATE INDEX idx_games_rounds ON " + T_GAMES + "(round_count, date)");
+        db.execSQL("CREATE INDEX idx_games_player_count ON " + T_GAMES + "(player_count, date)");
+    }
+
+    /**
+     * Index de recherche : un mot normalisé (SearchTokens) par ligne, trié pour les requêtes
+     * par préfixe (intervalle sur la clé primaire). Supprimé avec la partie par cascade.
+     */
+    private static void createSearchTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_SEARCH + " ("
+                + "token TEXT NOT NULL, "
+                + "game_id INTEGER NOT NULL REFERENCES " + T_GAMES + "(_id) ON DELETE CASCADE, "
+                + "PRIMARY KEY (token, game_id)) WITHOUT ROWID");
+        // Suppression en cascade et réindexation d'une partie
+        db.execSQL("CREATE INDEX idx_search_game ON " + T_SEARCH + "(game_id)");
+    }
+
+    /**
+     * Agrégats par joueur du registre, tenus à jour à chaque
+     * insertion / mise à jour / suppression de partie.
+     */
+    private static void createStatsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_STATS + " ("
+                + "player_id INTEGER PRIMARY KEY REFERENCES " + T_REGISTRY + "(_id) ON DELETE CASCADE, "
+                + "games INTEGER NOT NULL DEFAULT 0, "
+                + "wins INTEGER NOT NULL DEFAULT 0, "
+                + "losses INTEGER NOT NULL DEFAULT 0, "
+                + "score_sum INTEGER NOT NULL DEFAULT 0, "
+                + "round_count INTEGER NOT NULL DEFAULT 0, "
+                + "round_sum INTEGER NOT NULL DEFAULT 0, "
+                + "best_round INTEGER, "
+                + "worst_round INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            // Identifiant stable de partie pour les upserts (NULL pour les anciennes entrées)
+            db.execSQL("ALTER TABLE " + T_GAMES + " ADD COLUMN game_uid TEXT");
+            db.execSQL("ALTER TABLE " + T_GAMES + " ADD COLUMN rounds_hash INTEGER");
+            db.execSQL("CREATE UNIQUE INDEX idx_games_uid ON " + T_GAMES + "(game_uid)");
+        }
+        if (oldVersion < 4) {
+            // Registre des joueurs : un identifiant par nom distinct (insensible à la casse)
+            PlayerRegistry.createTables(db);
+            db.execSQL("ALTER TABLE " + T_PLAYERS + " ADD COLUMN player_id INTEGER REFERENCES " + T_REGISTRY + "(_id)");
+            Cursor names = db.rawQuery("SELECT DISTINCT name FROM " + T_PLAYERS, null);
+            try {
+                while (names.moveToNext()) {
+                    String name = names.getString(0);
+                    db.execSQL("UPDATE " + T_PLAYERS + " SET player_id = ? WHERE name = ?",
+                            new Object[]{PlayerRegistry.resolve(db, name), name});
+                }
+            } finally {
+                names.close();
+            }
+            db.execSQL("CREATE INDEX idx_players_pid ON " + T_PLAYERS + "(player_id)");
+
+            // Statistiques (v3 : par nom) remplacées par identifiant, recalculées en v8
+            db.execSQL("DROP INDEX IF EXISTS idx_players_name");
+            db.execSQL("DROP TABLE IF EXISTS " + T_STATS);
+            createStatsTable(db);
+        }
+        if (oldVersion < 5) {
+            createSearchTable(db);
+            Cursor c = db.rawQuery("SELECT _id FROM " + T_GAMES, null);
+            try {
+                while (c.moveToNext()) {
+                    indexGame(db, c.getLong(0));
+                }
+            } finally {
+                c.close();
+            }
+        }
+        if (oldVersion < 6) {
+            db.execSQL("ALTER TABLE " + T_GAMES + " ADD COLUMN winner_id INTEGER");
+            db.execSQL("UPDATE " + T_GAMES + " SET winner_id = (" + WINNER_ID_SELECT + ")");
+            createFilterIndexes(db);
+        }
+        if (oldVersion < 7) {
+            for (String column : new String[]{"round_count INTEGER NOT NULL DEFAULT 0",
+                    "round_sum INTEGER NOT NULL DEFAULT 0", "round_min INTEGER", "round_max INTEGER"}) {
+                db.execSQL("ALTER TABLE " + T_PLAYERS + " ADD COLUMN " + column);
+            }
+            db.execSQL("UPDATE " + T_PLAYERS + " SET " + ROUND_SUMMARY_SET);
+            for (String column : new String[]{"archive_segment", "archive_offset", "archive_length"}) {
+                db.execSQL("ALTER TABLE " + T_GAMES + " ADD COLUMN " + column + " INTEGER");
+            }
+        }
+        if (oldVersion < 8) {
+            // Défaites attribuées au premier siège à l'objectif (avant : au score le plus haut)
+            db.delete(T_STATS, null, null);
+            Cursor c = db.rawQuery("SELECT _id FROM " + T_GAMES, null);
+            try {
+                while (c.moveToNext()) {
+                    applyStats(db, c.getLong(0), 1, 0);
+                }
+            } finally {
+                c.close();
+            }
+        }
+        if (oldVersion < 9) {
+            assignLegacyUids(db);
+        }
+    }
+
+    /**
+     * Parties enregistrées sans identifiant (antérieures à game_uid) : identifiant dérivé de la
+     * date, du nom et des joueurs (LegacyGameId), le même que celui d'un export réimporté.
+     * Un doublon exact déjà présent garde un identifiant NULL (index unique).
+     */
+    private static void assignLegacyUids(SQLiteDatabase db) {
+        Cursor c = db.rawQuery("SELECT _id, date, game_name FROM " + T_GAMES + " WHERE game_uid IS NULL", null);
+        try {
+            while (c.moveToNext()) {
+                String[] args = {c.getString(0)};
+                List<String> names = new ArrayList<>();
+                List<Integer> scores = new ArrayList<>();
+                Cursor pc = db.rawQuery("SELECT name, score FROM " + T_PLAYERS + " WHERE game_id = ? ORDER BY seat", args);
+                try {
+                    while (pc.moveToNext()) {
+                        names.add(pc.getString(0));
+                        scores.add(pc.getInt(1));
+                    }
+                } finally {
+                    pc.close();
+                }
+                int[] scoreArray = new int[scores.size()];
+                for (int i = 0; i < scoreArray.length; i++) scoreArray[i] = scores.get(i);
+                String uid = LegacyGameId.of(c.getLong(1), c.getString(2), names.toArray(new String[0]), scoreArray);
+                db.execSQL("UPDATE OR IGNORE " + T_GAMES + " SET game_uid = ? WHERE _id = ?", new Object[]{uid, c.getLong(0)});
+            }
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Résumé des manches par joueur, gardé dans game_players : les statistiques n'ont
+     * plus besoin des lignes de rounds, qui peuvent partir dans l'archive.
+     */
+    private static final String ROUND_SUMMARY_SET = "round_count = (" + roundAggregate("COUNT(*)") + "), "
+            + "round_sum = (" + roundAggregate("COALESCE(SUM(score), 0)") + "), "
+            + "round_min = (" + roundAggregate("MIN(score)") + "), "
+            + "round_max = (" + roundAggregate("MAX(score)") + ")";
+
+    private static String roundAggregate(String aggregate) {
+        return "SELECT " + aggregate + " FROM " + T_ROUNDS + " r WHERE r.game_id = " + T_PLAYERS + ".game_id"
+                + " AND r.seat = " + T_PLAYERS + ".seat";
+    }
+
+    // Même règle que GameEngine.findWinner : premier score le plus bas
+    private static final String WINNER_ID_SELECT = "SELECT player_id FROM " + T_PLAYERS
+            + " WHERE game_id = " + T_GAMES + "._id ORDER BY score, seat LIMIT 1";
+
+    private static void updateWinnerId(SQLiteDatabase db, long gameRowId) {
+        db.execSQL("UPDATE " + T_GAMES + " SET winner_id = (" + WINNER_ID_SELECT + ") WHERE _id = ?",
+                new Object[]{gameRowId});
+    }
+
+    /**
+     * Insère une partie (format JSON de l'historique) en une seule transaction.
+     * @return l'identifiant de la ligne créée, ou -1 en cas d'échec
+     */
+    public long insertGame(JSONObject entry) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long id = insertGame(db, entry);
+            db.setTransactionSuccessful();
+            return id;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Insère ou met à jour la partie identifiée par entry.game_id.
+     * Une partie déjà enregistrée ne réécrit que sa ligne games ; joueurs et manches
+     * ne sont réécrits que si les scores ont changé. La date d'origine est conservée,
+     * ainsi que la photo si l'entrée n'en a pas. Une entrée sans game_id (ancienne partie)
+     * reçoit l'identifiant dérivé de son contenu (LegacyGameId) : la réimporter ne la duplique pas.
+     * @return l'identifiant de la ligne, ou -1 en cas d'échec
+     */
+    public long upsertGame(JSONObject entry) {
+        String gameUid = gameUid(entry);
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long rowId = -1;
+            long storedHash = 0;
+            boolean hasHash = false;
+            String storedConfig = null;
+            Cursor c = db.rawQuery("SELECT _id, rounds_hash, config FROM " + T_GAMES + " WHERE game_uid = ?",
+                    new String[]{gameUid});
+            try {
+                if (c.moveToFirst()) {
+                    rowId = c.getLong(0);
+                    hasHash = !c.isNull(1);
+                    storedHash = c.getLong(1);
+                    storedConfig = c.isNull(2) ? null : c.getString(2);
+                }
+            } finally {
+                c.close();
+            }
+
+            if (rowId < 0) {
+                rowId = insertGame(db, entry);
+            } else {
+                JSONArray playersArr = entry.optJSONArray("players");
+                ContentValues game = summaryValues(entry, playersArr);
+                game.remove("date");
+                // Sans photo dans l'entrée, celle déjà enregistrée est conservée ; une configuration
+                // partielle (import CSV : objectif seul) complète celle enregistrée sans l'écraser
+                JSONObject config = entry.optJSONObject("config");
+                if (config != null && storedConfig != null) game.put("config", mergeConfig(storedConfig, config));
+                db.update(T_GAMES, game, "_id = ?", new String[]{String.valueOf(rowId)});
+
+                if (!hasHash || storedHash != game.getAsLong("rounds_hash")) {
+                    String[] args = {String.valueOf(rowId)};
+                    applyStats(db, rowId, -1, 0);
+                    db.delete(T_ROUNDS, "game_id = ?", args);
+                    db.delete(T_PLAYERS, "game_id = ?", args);
+                    insertPlayers(db, rowId, playersArr);
+                    // Manches réécrites en base : l'éventuelle copie archivée devient morte
+                    db.execSQL("UPDATE " + T_GAMES + " SET archive_segment = NULL, archive_offset = NULL,"
+                            + " archive_length = NULL WHERE _id = ?", new Object[]{rowId});
+                    applyStats(db, rowId, 1, 0);
+                    updateWinnerId(db, rowId);
+                }
+                indexGame(db, rowId); // Le nom de la partie a pu changer
+            }
+            db.setTransactionSuccessful();
+            return rowId;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static String mergeConfig(String stored, JSONObject update) {
+        try {
+            JSONObject merged = new JSONObject(stored);
+            Iterator<String> keys = update.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                merged.put(key, update.get(key));
+            }
+            return merged.toString();
+        } catch (JSONException e) {
+            return update.toString();
+        }
+    }
+
+    /**
+     * game_id de l'entrée, ou à défaut l'identifiant dérivé de son contenu (ajouté à l'entrée).
+     */
+    private static String gameUid(JSONObject entry) {
+        String gameUid = entry.optString("game_id", null);
+        if (gameUid != null && !gameUid.isEmpty()) return gameUid;
+        gameUid = LegacyGameId.of(entry);
+        try {
+            entry.put("game_id", gameUid);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        return gameUid;
+    }
+
+    /**
+     * Importe l'ancien historique JSON (du plus ancien au plus récent) en une transaction.
+     * Chaque partie reçoit son identifiant dérivé ; un doublon exact n'est importé qu'une fois.
+     */
+    public void importLegacy(JSONArray history) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < history.length(); i++) {
+                JSONObject obj = history.optJSONObject(i);
+                if (obj != null && obj.has("winner") && obj.has("date")
+                        && DatabaseUtils.queryNumEntries(db, T_GAMES, "game_uid = ?", new String[]{gameUid(obj)}) == 0) {
+                    insertGame(db, obj);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private long insertGame(SQLiteDatabase db, JSONObject entry) {
+        JSONArray playersArr = entry.optJSONArray("players");
+        long gameId = db.insertOrThrow(T_GAMES, null, summaryValues(entry, playersArr));
+        insertPlayers(db, gameId, playersArr);
+        applyStats(db, gameId, 1, 0);
+        indexGame(db, gameId);
+        updateWinnerId(db, gameId);
+        return gameId;
+    }
+
+    private ContentValues summaryValues(JSONObject entry, JSONArray playersArr) {
+        int playerCount = playersArr != null ? playersArr.length() : 0;
+        int roundCount = 0;
+        long roundsHash = 17;
+        for (int i = 0; i < playerCount; i++) {
+            JSONObject pJson = playersArr.optJSONObject(i);
+            JSONArray rounds = pJson != null ? pJson.optJSONArray("roundScores") : null;
+            roundsHash = 31 * roundsHash + (pJson != null ? pJson.optString("name").hashCode() : 0);
+            if (rounds == null) continue;
+            roundCount = Math.max(roundCount, rounds.length());
+            for (int r = 0; r < rounds.length(); r++) {
+                roundsHash = 31 * roundsHash + rounds.optInt(r);
+            }
+        }
+
+        ContentValues game = new ContentValues();
+        game.put("game_name", entry.optString("game_name", "Partie sans nom"));
+        game.put("winner", entry.optString("winner", "Inconnu"));
+        game.put("winner_score", entry.optInt("winner_score", 0));
+        game.put("date", entry.optLong("date", 0));
+        String imagePath = entry.optString("image_path", null);
+        if (imagePath != null && !imagePath.isEmpty()) game.put("image_path", imagePath);
+        JSONObject config = entry.optJSONObject("config");
+        if (config != null) game.put("config", config.toString());
+        game.put("player_count", playerCount);
+        game.put("round_count", roundCount);
+        game.put("rounds_hash", roundsHash);
+        String gameUid = entry.optString("game_id", null);
+        if (gameUid != null && !gameUid.isEmpty()) game.put("game_uid", gameUid);
+        return game;
+    }
+
+    void insertPlayers(SQLiteDatabase db, long gameId, JSONArray playersArr) {
+        if (playersArr == null) return;
+        SQLiteStatement playerStmt = db.compileStatement(
+                "INSERT INTO " + T_PLAYERS + " (game_id, seat, name, color, score, player_id) VALUES (?, ?, ?, ?, ?, ?)");
+        SQLiteStatement roundStmt = db.compileStatement(
+                "INSERT INTO " + T_ROUNDS + " (game_id, seat, round_index, score) VALUES (?, ?, ?, ?)");
+        try {
+            for (int seat = 0; seat < playersArr.length(); seat++) {
+                JSONObject pJson = playersArr.optJSONObject(seat);
+                if (pJson == null) continue;
+                playerStmt.clearBindings();
+                playerStmt.bindLong(1, gameId);
+                playerStmt.bindLong(2, seat);
+                String name = pJson.optString("name", "");
+                playerStmt.bindString(3, name);
+                String color = pJson.optString("color", null);
+                if (color != null) playerStmt.bindString(4, color); else playerStmt.bindNull(4);
+                playerStmt.bindLong(5, pJson.optInt("score", 0));
+                playerStmt.bindLong(6, PlayerRegistry.resolve(db, pJson.optLong("player_id", 0), name));
+                playerStmt.executeInsert();
+
+                JSONArray rounds = pJson.optJSONArray("roundScores");
+                if (rounds == null) continue;
+                for (int r = 0; r < rounds.length(); r++) {
+                    roundStmt.bindLong(1, gameId);
+                    roundStmt.bindLong(2, seat);
+                    roundStmt.bindLong(3, r);
+                    roundStmt.bindLong(4, rounds.optInt(r));
+                    roundStmt.executeInsert();
+                }
+            }
+        } finally {
+            playerStmt.close();
+            roundStmt.close();
+        }
+        db.execSQL("UPDATE " + T_PLAYERS + " SET " + ROUND_SUMMARY_SET + " WHERE game_id = ?", new Object[]{gameId});
+    }
+
+    /**
+     * Ajoute (sign = 1) ou retire (sign = -1) la contribution d'une partie aux statistiques.
+     * Coût : une lecture du résumé de manches de cette partie et une mise à jour par joueur
+     * (les manches elles-mêmes peuvent être archivées).
+     * À appeler dans une transaction, avant la suppression des lignes de la partie.
+     * @param onlyPlayerId limite la mise à jour à ce joueur (0 = tous)
+     */
+    static void applyStats(SQLiteDatabase db, long gameRowId, int sign, long onlyPlayerId) {
+        Cursor c = db.rawQuery("SELECT player_id, score, round_count, round_sum, round_min, round_max"
+                + " FROM " + T_PLAYERS + " WHERE game_id = ? ORDER BY seat", new String[]{String.valueOf(gameRowId)});
+        int n = c.getCount();
+        long[] ids = new long[n];
+        int[] scores = new int[n];
+        int[] roundCounts = new int[n];
+        long[] roundSums = new long[n];
+        Integer[] mins = new Integer[n];
+        Integer[] maxs = new Integer[n];
+        try {
+            for (int i = 0; c.moveToNext(); i++) {
+                ids[i] = c.getLong(0);
+                scores[i] = c.getInt(1);
+                roundCounts[i] = c.getInt(2);
+                roundSums[i] = c.getLong(3);
+                mins[i] = c.isNull(4) ? null : c.getInt(4);
+                maxs[i] = c.isNull(5) ? null : c.getInt(5);
+            }
+        } finally {
+            c.close();
+        }
+        if (n == 0) return;
+
+        // Mêmes règles que la partie : premier score le plus bas gagne (GameEngine.findWinner),
+        // premier siège à l'objectif perd (GameEngine.findRecordedLoserSeat, comme HistoryRow)
+        int winner = 0;
+        for (int i = 1; i < n; i++) {
+            if (scores[i] < scores[winner]) winner = i;
+        }
+        int loser = GameEngine.findRecordedLoserSeat(scores, targetScore(db, gameRowId));
+
+        for (int i = 0; i < n; i++) {
+            if (ids[i] <= 0 || (onlyPlayerId != 0 && ids[i] != onlyPlayerId)) continue;
+            int win = i == winner ? 1 : 0;
+            int loss = n > 1 && i == loser ? 1 : 0;
+            if (sign > 0) {
+                db.execSQL("INSERT OR IGNORE INTO " + T_STATS + " (player_id) VALUES (?)", new Object[]{ids[i]});
+                db.execSQL("UPDATE " + T_STATS + " SET games = games + 1, wins = wins + ?, losses = losses + ?,"
+                                + " score_sum = score_sum + ?, round_count = round_count + ?, round_sum = round_sum + ?,"
+                                + " best_round = CASE WHEN ? IS NULL THEN best_round WHEN best_round IS NULL OR ? < best_round THEN ? ELSE best_round END,"
+                                + " worst_round = CASE WHEN ? IS NULL THEN worst_round WHEN worst_round IS NULL OR ? > worst_round THEN ? ELSE worst_round END"
+                                + " WHERE player_id = ?",
+                        new Object[]{win, loss, scores[i], roundCounts[i], roundSums[i],
+                                mins[i], mins[i], mins[i], maxs[i], maxs[i], maxs[i], ids[i]});
+            } else {
+                db.execSQL("UPDATE " + T_STATS + " SET games = games - 1, wins = wins - ?, losses = losses - ?,"
+                                + " score_sum = score_sum - ?, round_count = round_count - ?, round_sum = round_sum - ?"
+                                + " WHERE player_id = ?",
+                        new Object[]{win, loss, scores[i], roundCounts[i], roundSums[i], ids[i]});
+                db.execSQL("DELETE FROM " + T_STATS + " WHERE player_id = ? AND games <= 0", new Object[]{ids[i]});
+                if (mins[i] != null) {
+                    correctExtremes(db, ids[i], gameRowId, mins[i], maxs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Objectif de la partie d'après sa configuration enregistrée, ou 0 s'il est inconnu.
+     */
+    private static int targetScore(SQLiteDatabase db, long gameRowId) {
+        Cursor c = db.rawQuery("SELECT config FROM " + T_GAMES + " WHERE _id = ?",
+                new String[]{String.valueOf(gameRowId)});
+        try {
+            if (!c.moveToFirst() || c.isNull(0)) return 0;
+            return new JSONObject(c.getString(0)).optInt("targetScore", 0);
+        } catch (JSONException e) {
+            return 0;
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Les extrêmes ne se décrémentent pas : si la partie retirée portait la meilleure ou la
+     * pire manche du joueur, on les recalcule sur ses autres parties (index idx_players_pid).
+     */
+    private static void correctExtremes(SQLiteDatabase db, long playerId, long removedGameId, int removedMin, int removedMax) {
+        Cursor c = db.rawQuery("SELECT best_round, worst_round FROM " + T_STATS + " WHERE player_id = ?",
+                new String[]{String.valueOf(playerId)});
+        boolean stale;
+        try {
+            if (!c.moveToFirst()) return;
+            stale = (!c.isNull(0) && c.getInt(0) == removedMin) || (!c.isNull(1) && c.getInt(1) == removedMax);
+        } finally {
+            c.close();
+        }
+        if (!stale) return;
+        db.execSQL("UPDATE " + T_STATS + " SET"
+                        + " best_round = (SELECT MIN(round_min) FROM " + T_PLAYERS + " WHERE player_id = ?1 AND game_id != ?2),"
+                        + " worst_round = (SELECT MAX(round_max) FROM " + T_PLAYERS + " WHERE player_id = ?1 AND game_id != ?2)"
+                        + " WHERE player_id = ?1",
+                new Object[]{playerId, removedGameId});
+    }
+
+    /**
+     * (Ré)indexe le nom de la partie, les noms saisis de ses joueurs et leur nom au registre
+     * (une partie reste trouvable sous le nom d'un joueur renommé ou fusionné).
+     * Quelques lignes par partie.
+     */
+    static void indexGame(SQLiteDatabase db, long gameRowId) {
+        String[] args = {String.valueOf(gameRowId)};
+        Set<String> tokens = new LinkedHashSet<>();
+        Cursor c = db.rawQuery("SELECT game_name FROM " + T_GAMES + " WHERE _id = ?"
+                + " UNION ALL SELECT name FROM " + T_PLAYERS + " WHERE game_id = ?"
+                + " UNION ALL SELECT r.display_name FROM " + T_PLAYERS + " p JOIN " + T_REGISTRY
+                + " r ON r._id = p.player_id WHERE p.game_id = ?", new String[]{args[0], args[0], args[0]});
+        try {
+            while (c.moveToNext()) {
+                tokens.addAll(SearchTokens.tokenize(c.getString(0)));
+            }
+        } finally {
+            c.close();
+        }
+        db.delete(T_SEARCH, "game_id = ?", args);
+        SQLiteStatement stmt = db.compileStatement("INSERT OR IGNORE INTO " + T_SEARCH + " (token, game_id) VALUES (?, ?)");
+        try {
+            for (String token : tokens) {
+                stmt.bindString(1, token);
+                stmt.bindLong(2, gameRowId);
+                stmt.executeInsert();
+            }
+        } finally {
+            stmt.close();
+        }
+    }
+
+    /**
+     * Clause WHERE (sur T_GAMES) d'une requête ; chaque critère s'appuie sur un index.
+     * Recherche : chaque mot saisi doit être le préfixe d'un mot indexé de la partie
+     * (un parcours d'intervalle de search_tokens par mot).
+     */
+    private static String whereClause(HistoryQuery query, List<String> args) {
+        List<String> clauses = new ArrayList<>();
+        for (String token : query.searchTokens) {
+            clauses.add("_id IN (SELECT game_id FROM " + T_SEARCH + " WHERE token >= ? AND token < ?)");
+            args.add(token);
+            args.add(SearchTokens.prefixUpperBound(token));
+        }
+        if (query.fromDate > 0) {
+            clauses.add("date >= ?");
+            args.add(String.valueOf(query.fromDate));
+        }
+        if (query.toDate > 0) {
+            clauses.add("date <= ?");
+            args.add(String.valueOf(query.toDate));
+        }
+        if (query.wonBy > 0) {
+            clauses.add("winner_id = ?");
+            args.add(String.valueOf(query.wonBy));
+        }
+        if (query.participant > 0) {
+            clauses.add("_id IN (SELECT game_id FROM " + T_PLAYERS + " WHERE player_id = ?)");
+            args.add(String.valueOf(query.participant));
+        }
+        if (query.minWinnerScore != null) {
+            clauses.add("winner_score >= ?");
+            args.add(String.valueOf(query.minWinnerScore));
+        }
+        if (query.maxWinnerScore != null) {
+            clauses.add("winner_score <= ?");
+            args.add(String.valueOf(query.maxWinnerScore));
+        }
+        if (query.playerCount > 0) {
+            clauses.add("player_count = ?");
+            args.add(String.valueOf(query.playerCount));
+        }
+        if (clauses.isEmpty()) return null;
+        StringBuilder where = new StringBuilder();
+        for (String clause : clauses) {
+            if (where.length() > 0) where.append(" AND ");
+            where.append(clause);
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(HistoryQuery query) {
+        switch (query.sort) {
+            case HistoryQuery.SORT_WINNER_SCORE: return "winner_score ASC, date DESC, _id DESC";
+            case HistoryQuery.SORT_ROUNDS: return "round_count DESC, date DESC, _id DESC";
+            default: return "date DESC, _id DESC";
+        }
+    }
+
+    /**
+     * Scores de manche d'un joueur du registre, parties les plus récentes d'abord (au plus
+     * {@code limit}) : d'abord les parties en base, puis, si besoin, les segments d'archive.
+     */
+    public int[] queryRoundSamples(long playerId, int limit) {
+        int[] samples = new int[limit];
+        int count = 0;
+        SQLiteDatabase db = getReadableDatabase();
+        String[] args = {String.valueOf(playerId)};
+        Cursor c = db.rawQuery("SELECT r.score FROM " + T_PLAYERS + " p"
+                + " JOIN " + T_GAMES + " g ON g._id = p.game_id"
+                + " JOIN " + T_ROUNDS + " r ON r.game_id = p.game_id AND r.seat = p.seat"
+                + " WHERE p.player_id = ? ORDER BY g.date DESC, r.round_index LIMIT " + limit, args);
+        try {
+            while (c.moveToNext()) samples[count++] = c.getInt(0);
+        } finally {
+            c.close();
+        }
+        if (count < limit) {
+            archiveLock.readLock().lock();
+            try {
+                Cursor ac = db.rawQuery("SELECT p.seat, g.archive_segment, g.archive_offset, g.archive_length"
+                        + " FROM " + T_PLAYERS + " p JOIN " + T_GAMES + " g ON g._id = p.game_id"
+                        + " WHERE p.player_id = ? AND g.archive_segment IS NOT NULL ORDER BY g.date DESC", args);
+                try {
+                    while (count < limit && ac.moveToNext()) {
+                        ArchiveStore.Location location = new ArchiveStore.Location(ac.getInt(1), ac.getLong(2), ac.getInt(3));
+                        try {
+                            JSONArray seats = new JSONArray(new String(archive.read(location), StandardCharsets.UTF_8));
+                            JSONArray rounds = seats.optJSONArray(ac.getInt(0));
+                            for (int r = 0; rounds != null && r < rounds.length() && count < limit; r++) {
+                                samples[count++] = rounds.getInt(r);
+                            }
+                        } catch (IOException | JSONException e) {
+                            e.printStackTrace(); // Segment illisible : partie ignorée
+                        }
+                    }
+                } finally {
+                    ac.close();
+                }
+            } finally {
+                archiveLock.readLock().unlock();
+            }
+        }
+        return count == limit ? samples : Arrays.copyOf(samples, count);
+    }
+
+    /**
+     * Statistiques de tous les joueurs, les plus victorieux d'abord. Lecture d'une ligne par joueur.
+     */
+    public List<PlayerStats> queryPlayerStats() {
+        List<PlayerStats> stats = new ArrayList<>();
+        Cursor c = getReadableDatabase().rawQuery("SELECT s.player_id, p.display_name, s.games, s.wins, s.losses,"
+                + " s.score_sum, s.round_count, s.round_sum, s.best_round, s.worst_round"
+                + " FROM " + T_STATS + " s JOIN " + T_REGISTRY + " p ON p._id = s.player_id"
+                + " ORDER BY s.wins DESC, s.games DESC, p.display_name COLLATE NOCASE", null);
+        try {
+            while (c.moveToNext()) {
+                stats.add(new PlayerStats(c.getLong(0), c.getString(1), c.getInt(2), c.getInt(3), c.getInt(4),
+                        c.getLong(5), c.getInt(6), c.getLong(7),
+                        c.isNull(8) ? PlayerStats.NO_ROUND : c.getInt(8),
+                        c.isNull(9) ? PlayerStats.NO_ROUND : c.getInt(9)));
+            }
+        } finally {
+            c.close();
+        }
+        return stats;
+    }
+
+    /**
+     * Parties les plus récentes d'abord.
+     * @param limit nombre maximum d'entrées, ou une valeur négative pour tout charger
+     */
+    public List<JSONObject> queryGames(int limit, int offset) {
+        return queryGames(HistoryQuery.ALL, limit, offset);
+    }
+
+    /**
+     * Parcours de tout l'historique pour l'export.
+     */
+    public interface GameSink {
+        /** @return false pour interrompre le parcours */
+        boolean onGame(JSONObject entry, int index, int total) throws IOException;
+    }
+
+    /**
+     * Remet chaque partie (manches comprises, archivées ou non) au sink, de la plus ancienne
+     * à la plus récente. Lecture par lots de EXPORT_BATCH parties (pagination par _id) :
+     * la mémoire utilisée ne dépend pas de la taille de l'historique.
+     * @return le nombre de parties remises
+     */
+    public int forEachGame(GameSink sink) throws IOException {
+        int total = getGameCount();
+        int index = 0;
+        long lastId = 0;
+        while (true) {
+            Map<Long, JSONObject> batch = loadGames("_id > ?", new String[]{String.valueOf(lastId)},
+                    "_id", String.valueOf(EXPORT_BATCH));
+            if (batch.isEmpty()) return index;
+            for (Map.Entry<Long, JSONObject> e : batch.entrySet()) {
+                lastId = e.getKey();
+                if (!sink.onGame(e.getValue(), index++, total)) return index;
+            }
+        }
+    }
+
+    /**
+     * Importe un lot de parties (upsert par identifiant de partie) dans une seule transaction.
+     */
+    public void upsertGames(List<JSONObject> entries) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (JSONObject entry : entries) {
+                upsertGame(entry);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Parties correspondant à la requête, dans l'ordre de query.sort.
+     */
+    public List<JSONObject> queryGames(HistoryQuery query, int limit, int offset) {
+        String limitClause = limit >= 0 ? offset + "," + limit : null;
+        List<String> args = new ArrayList<>();
+        String where = whereClause(query, args);
+        return new ArrayList<>(loadGames(where, args.toArray(new String[0]), orderBy(query), limitClause).values());
+    }
+
+    /**
+     * Une partie complète (manches comprises, archivées ou non) par son identifiant stable, ou null.
+     */
+    public JSONObject queryGame(String gameUid) {
+        Map<Long, JSONObject> games = loadGames("game_uid = ?", new String[]{gameUid}, null, "1");
+        return games.isEmpty() ? null : games.values().iterator().next();
+    }
+
+    private Map<Long, JSONObject> loadGames(String where, String[] args, String orderBy, String limitClause) {
+        // Emplacements d'archive lus puis segments relus sous le même verrou :
+        // la compaction ne peut pas déplacer ni supprimer un segment entre les deux
+        archiveLock.readLock().lock();
+        try {
+            SQLiteDatabase db = getReadableDatabase();
+            Map<Long, JSONObject> games = new LinkedHashMap<>();
+            Map<Long, ArchiveStore.Location> archived = new HashMap<>();
+            Cursor c = db.query(T_GAMES,
+                    new String[]{"_id", "game_name", "winner", "winner_score", "date", "image_path", "config", "game_uid",
+                            "archive_segment", "archive_offset", "archive_length"},
+                    where, args, null, null, orderBy, limitClause);
+            try {
+                while (c.moveToNext()) {
+                    JSONObject entry = new JSONObject();
+                    entry.put("winner", c.getString(2));
+                    entry.put("winner_score", c.getInt(3));
+                    entry.put("date", c.getLong(4));
+                    if (!c.isNull(5)) entry.put("image_path", c.getString(5));
+                    if (!c.isNull(1)) entry.put("game_name", c.getString(1));
+                    if (!c.isNull(6)) entry.put("config", new JSONObject(c.getString(6)));
+                    if (!c.isNull(7)) entry.put("game_id", c.getString(7));
+                    entry.put("players", new JSONArray());
+                    games.put(c.getLong(0), entry);
+                    if (!c.isNull(8)) {
+                        archived.put(c.getLong(0), new ArchiveStore.Location(c.getInt(8), c.getLong(9), c.getInt(10)));
+                    }
+                }
+            } catch (JSONException e) {
+                e.printStackTrace();
+            } finally {
+                c.close();
+            }
+            if (!games.isEmpty()) {
+                attachPlayers(db, games, archived);
+            }
+            return games;
+        } finally {
+            archiveLock.readLock().unlock();
+        }
+    }
+
+    private void attachPlayers(SQLiteDatabase db, Map<Long, JSONObject> games, Map<Long, ArchiveStore.Location> archived) {
+        StringBuilder in = new StringBuilder();
+        for (Long id : games.keySet()) {
+            if (in.length() > 0) in.append(',');
+            in.append(id);
+        }
+
+        Map<String, JSONArray> roundsByPlayer = new HashMap<>();
+        Cursor rc = db.rawQuery("SELECT game_id, seat, score FROM " + T_ROUNDS
+                + " WHERE game_id IN (" + in + ") ORDER BY game_id, seat, round_index", null);
+        try {
+            while (rc.moveToNext()) {
+                String key = rc.getLong(0) + ":" + rc.getInt(1);
+                JSONArray arr = roundsByPlayer.get(key);
+                if (arr == null) {
+                    arr = new JSONArray();
+                    roundsByPlayer.put(key, arr);
+                }
+                arr.put(rc.getInt(2));
+            }
+        } finally {
+            rc.close();
+        }
+        // Parties archivées : détail relu dans leur segment, seulement pour cette page
+        for (Map.Entry<Long, ArchiveStore.Location> e : archived.entrySet()) {
+            loadArchivedRounds(e.getKey(), e.getValue(), roundsByPlayer);
+        }
+
+        Cursor pc = db.rawQuery("SELECT game_id, seat, name, color, score, player_id FROM " + T_PLAYERS
+                + " WHERE game_id IN (" + in + ") ORDER BY game_id, seat", null);
+        try {
+            while (pc.moveToNext()) {
+                long gameId = pc.getLong(0);
+                int seat = pc.getInt(1);
+                JSONObject pJson = new JSONObject();
+                pJson.put("name", pc.getString(2));
+                pJson.put("id", seat);
+                pJson.put("color", pc.isNull(3) ? ColorManager.getPlayerColorHex(seat) : pc.getString(3));
+                pJson.put("score", pc.getInt(4));
+                if (!pc.isNull(5)) pJson.put("player_id", pc.getLong(5));
+                JSONArray rounds = roundsByPlayer.get(gameId + ":" + seat);
+                pJson.put("roundScores", rounds != null ? rounds : new JSONArray());
+                games.get(gameId).getJSONArray("players").put(pJson);
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+        } finally {
+            pc.close();
+        }
+    }
+
+    private void loadArchivedRounds(long gameRowId, ArchiveStore.Location location, Map<String, JSONArray> roundsByPlayer) {
+        try {
+            JSONArray seats = new JSONArray(new String(archive.read(location), StandardCharsets.UTF_8));
+            for (int seat = 0; seat < seats.length(); seat++) {
+                roundsByPlayer.put(gameRowId + ":" + seat, seats.getJSONArray(seat));
+            }
+        } catch (IOException | JSONException e) {
+            // Détail illisible : la partie reste affichée avec son résumé
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Parties encore en base antérieures à {@code cutoff}, les plus anciennes d'abord,
+     * avec leur photo éventuelle (null sinon).
+     */
+    public Map<Long, String> findArchivable(long cutoff, int limit) {
+        Map<Long, String> games = new LinkedHashMap<>();
+        Cursor c = getReadableDatabase().rawQuery("SELECT _id, image_path FROM " + T_GAMES
+                        + " WHERE date < ? AND archive_segment IS NULL ORDER BY date LIMIT " + limit,
+                new String[]{String.valueOf(cutoff)});
+        try {
+            while (c.moveToNext()) {
+                games.put(c.getLong(0), c.isNull(1) ? null : c.getString(1));
+            }
+        } finally {
+            c.close();
+        }
+        return games;
+    }
+
+    /**
+     * Déplace les manches d'une partie dans l'archive : ajout au segment (synchronisé sur disque),
+     * puis, en une transaction, emplacement enregistré et lignes de rounds supprimées.
+     * Résumé, joueurs, statistiques et index de recherche restent en base.
+     * Une partie modifiée entre-temps (rounds_hash différent) n'est pas archivée ;
+     * l'enregistrement ajouté reste alors mort jusqu'à la compaction.
+     * @return false si la partie n'a pas été archivée
+     */
+    public boolean archiveGame(long gameRowId) throws IOException {
+        SQLiteDatabase db = getWritableDatabase();
+        String[] args = {String.valueOf(gameRowId)};
+        long hash;
+        Cursor gc = db.rawQuery("SELECT rounds_hash, player_count FROM " + T_GAMES
+                + " WHERE _id = ? AND archive_segment IS NULL", args);
+        JSONArray seats = new JSONArray();
+        try {
+            if (!gc.moveToFirst()) return false;
+            hash = gc.getLong(0);
+            for (int i = 0; i < gc.getInt(1); i++) seats.put(new JSONArray());
+        } finally {
+            gc.close();
+        }
+        Cursor rc = db.rawQuery("SELECT seat, score FROM " + T_ROUNDS + " WHERE game_id = ? ORDER BY seat, round_index", args);
+        try {
+            while (rc.moveToNext()) {
+                JSONArray rounds = seats.optJSONArray(rc.getInt(0));
+                if (rounds != null) rounds.put(rc.getInt(1));
+            }
+        } finally {
+            rc.close();
+        }
+
+        ArchiveStore.Location location = archive.append(seats.toString().getBytes(StandardCharsets.UTF_8));
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put("archive_segment", location.segment);
+            values.put("archive_offset", location.offset);
+            values.put("archive_length", location.length);
+            int updated = db.update(T_GAMES, values, "_id = ? AND rounds_hash = ? AND archive_segment IS NULL",
+                    new String[]{args[0], String.valueOf(hash)});
+            if (updated == 0) return false;
+            db.delete(T_ROUNDS, "game_id = ?", args);
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Recopie d'un segment d'archive : pour chaque partie encore référencée, son ancien
+     * et son nouvel emplacement.
+     */
+    public static final class SegmentMove {
+        final int segment;
+        final List<Long> games = new ArrayList<>();
+        final List<ArchiveStore.Location> from = new ArrayList<>();
+        final List<ArchiveStore.Location> to = new ArrayList<>();
+
+        SegmentMove(int segment) {
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * Segments fermés à compacter : ceux dont la part encore référencée est inférieure à
+     * {@code minLiveRatio}, du plus ancien au plus récent.
+     */
+    public List<Integer> findCompactableSegments(double minLiveRatio) {
+        Map<Integer, Long> liveBytes = new HashMap<>();
+        Cursor c = getReadableDatabase().rawQuery("SELECT archive_segment, SUM(archive_length) FROM " + T_GAMES
+                + " WHERE archive_segment IS NOT NULL GROUP BY archive_segment", null);
+        try {
+            while (c.moveToNext()) liveBytes.put(c.getInt(0), c.getLong(1));
+        } finally {
+            c.close();
+        }
+
+        List<Integer> segments = new ArrayList<>();
+        int current = archive.currentSegment();
+        for (int segment : archive.segments()) {
+            if (segment == current) continue;
+            Long live = liveBytes.get(segment);
+            long size = archive.segmentSize(segment);
+            if (live != null && size > 0 && (double) live / size >= minLiveRatio) continue;
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    /**
+     * Première moitié de la compaction, sur le thread de l'archiveur : les enregistrements
+     * vivants du segment sont recopiés dans le segment courant (relecture, recompression,
+     * synchronisation sur disque). La base n'est pas modifiée : les lectures continuent
+     * d'utiliser l'ancien emplacement, et une copie jamais validée reste morte.
+     */
+    public SegmentMove copySegment(int segment) throws IOException {
+        SegmentMove move = new SegmentMove(segment);
+        Cursor c = getReadableDatabase().rawQuery("SELECT _id, archive_offset, archive_length FROM " + T_GAMES
+                + " WHERE archive_segment = ?", new String[]{String.valueOf(segment)});
+        try {
+            while (c.moveToNext()) {
+                ArchiveStore.Location from = new ArchiveStore.Location(segment, c.getLong(1), c.getInt(2));
+                move.games.add(c.getLong(0));
+                move.from.add(from);
+                move.to.add(archive.append(archive.read(from)));
+            }
+        } finally {
+            c.close();
+        }
+        return move;
+    }
+
+    /**
+     * Seconde moitié, courte : les parties passent à leur nouvel emplacement en une transaction
+     * (sauf celles modifiées depuis la copie), puis le segment est supprimé s'il n'est plus
+     * référencé. Exclusif avec les lectures d'archive (archiveLock) ; appelé sur le thread
+     * d'écriture, une tâche par segment (GameManager.compactHistoryArchive).
+     * @return true si le segment a été supprimé
+     */
+    public boolean commitSegmentMove(SegmentMove move) {
+        String segment = String.valueOf(move.segment);
+        archiveLock.writeLock().lock();
+        try {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (int i = 0; i < move.games.size(); i++) {
+                    ArchiveStore.Location to = move.to.get(i);
+                    ContentValues values = new ContentValues();
+                    values.put("archive_segment", to.segment);
+                    values.put("archive_offset", to.offset);
+                    values.put("archive_length", to.length);
+                    db.update(T_GAMES, values, "_id = ? AND archive_segment = ? AND archive_offset = ?",
+                            new String[]{String.valueOf(move.games.get(i)), segment, String.valueOf(move.from.get(i).offset)});
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (DatabaseUtils.queryNumEntries(db, T_GAMES, "archive_segment = ?", new String[]{segment}) > 0) {
+                return false; // Partie archivée ici après la copie : on réessaiera
+            }
+            return archive.deleteSegment(move.segment);
+        } finally {
+            archiveLock.writeLock().unlock();
+        }
+    }
+
+    public int getGameCount() {
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), T_GAMES);
+    }
+
+    public int getGameCount(HistoryQuery query) {
+        List<String> args = new ArrayList<>();
+        String where = whereClause(query, args);
+        return (int) DatabaseUtils.queryNumEntries(getReadableDatabase(), T_GAMES, where, args.toArray(new String[0]));
+    }
+
+    /**
+     * Supprime une partie par son identifiant stable (joueurs et manches suivent par cascade).
+     */
+    public boolean deleteGame(String gameUid) {
+        return deleteWhere("game_uid = ?", new String[]{gameUid});
+    }
+
+    /**
+     * Supprime la partie la plus récente (joueurs et manches suivent par cascade).
+     */
+    public boolean deleteNewestGame() {
+        return deleteWhere("_id = (SELECT _id FROM " + T_GAMES + " ORDER BY date DESC, _id DESC LIMIT 1)", null);
+    }
+
+    /**
+     * Retire la contribution aux statistiques puis supprime, dans une même transaction.
+     */
+    private boolean deleteWhere(String where, String[] args) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            Cursor c = db.query(T_GAMES, new String[]{"_id"}, where, args, null, null, null);
+            boolean deleted = false;
+            try {
+                while (c.moveToNext()) {
+                    long rowId = c.getLong(0);
+                    applyStats(db, rowId, -1, 0);
+                    deleted |= db.delete(T_GAMES, "_id = ?", new String[]{String.valueOf(rowId)}) > 0;
+                }
+            } finally {
+                c.close();
+            }
+            db.setTransactionSuccessful();
+            return deleted;
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
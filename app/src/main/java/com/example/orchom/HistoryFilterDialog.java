@@ -0,0 +1,133 @@
+package com.example.orchom;
+
+import android.app.DatePickerDialog;
+import android.content.Context;
+import android.text.format.DateFormat;
+import android.view.LayoutInflater;
+import android.widget.ArrayAdapter;
+import android.widget.Spinner;
+import androidx.appcompat.app.AlertDialog;
+import com.example.orchom.databinding.DialogHistoryFiltersBinding;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Boîte de filtres et de tri de l'historique. Construit une HistoryQuery ;
+ * la recherche saisie est conservée par l'appelant (HistoryQuery.withFilters).
+ */
+public class HistoryFilterDialog {
+
+    public interface Callback {
+        void onApply(HistoryQuery filters);
+    }
+
+    private static final String[] PLAYER_COUNTS = {"Tous", "2", "3", "4", "5"};
+    private static final String[] SORTS = {"Date", "Score du gagnant", "Nombre de manches"};
+
+    private final Context context;
+    private final DialogHistoryFiltersBinding binding;
+    private final List<PlayerRegistry.Entry> players;
+    private long fromDate;
+    private long toDate;
+
+    /**
+     * @param players joueurs du registre, chargés hors du thread UI par l'appelant
+     */
+    public HistoryFilterDialog(Context context, HistoryQuery current, List<PlayerRegistry.Entry> players) {
+        this.context = context;
+        this.players = players;
+        this.binding = DialogHistoryFiltersBinding.inflate(LayoutInflater.from(context));
+        bind(current);
+    }
+
+    private void bind(HistoryQuery q) {
+        List<String> names = new ArrayList<>();
+        names.add("Tous");
+        for (PlayerRegistry.Entry e : players) names.add(e.displayName);
+        setupSpinner(binding.wonBySpinner, names.toArray(new String[0]), indexOf(q.wonBy));
+        setupSpinner(binding.participantSpinner, names.toArray(new String[0]), indexOf(q.participant));
+        setupSpinner(binding.playerCountSpinner, PLAYER_COUNTS, q.playerCount >= 2 ? q.playerCount - 1 : 0);
+        setupSpinner(binding.sortSpinner, SORTS, q.sort);
+
+        binding.minScoreInput.setText(q.minWinnerScore == null ? "" : String.valueOf(q.minWinnerScore));
+        binding.maxScoreInput.setText(q.maxWinnerScore == null ? "" : String.valueOf(q.maxWinnerScore));
+
+        fromDate = q.fromDate;
+        toDate = q.toDate;
+        updateDateButtons();
+        binding.fromDateButton.setOnClickListener(v -> pickDate(true));
+        binding.toDateButton.setOnClickListener(v -> pickDate(false));
+    }
+
+    private void setupSpinner(Spinner spinner, String[] items, int selection) {
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(context, android.R.layout.simple_spinner_item, items);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinner.setAdapter(adapter);
+        spinner.setSelection(Math.min(selection, items.length - 1));
+    }
+
+    private int indexOf(long playerId) {
+        if (playerId <= 0) return 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).id == playerId) return i + 1;
+        }
+        return 0;
+    }
+
+    private void pickDate(boolean from) {
+        Calendar cal = Calendar.getInstance();
+        long current = from ? fromDate : toDate;
+        if (current > 0) cal.setTimeInMillis(current);
+        new DatePickerDialog(context, (view, year, month, day) -> {
+            Calendar picked = Calendar.getInstance();
+            picked.clear();
+            picked.set(year, month, day);
+            if (from) {
+                fromDate = picked.getTimeInMillis();
+            } else {
+                // Borne incluse : jusqu'à la fin de la journée
+                picked.add(Calendar.DAY_OF_MONTH, 1);
+                toDate = picked.getTimeInMillis() - 1;
+            }
+            updateDateButtons();
+        }, cal.get(Calendar.YEAR), cal.get(Calendar.MONTH), cal.get(Calendar.DAY_OF_MONTH)).show();
+    }
+
+    private void updateDateButtons() {
+        binding.fromDateButton.setText(fromDate > 0 ? DateFormat.format("dd/MM/yyyy", fromDate) : "Depuis");
+        binding.toDateButton.setText(toDate > 0 ? DateFormat.format("dd/MM/yyyy", toDate) : "Jusqu'à");
+    }
+
+    private HistoryQuery collect() {
+        int won = binding.wonBySpinner.getSelectedItemPosition();
+        int with = binding.participantSpinner.getSelectedItemPosition();
+        int count = binding.playerCountSpinner.getSelectedItemPosition();
+        return HistoryQuery.ALL
+                .withDateRange(fromDate, toDate)
+                .withWonBy(won > 0 ? players.get(won - 1).id : 0)
+                .withParticipant(with > 0 ? players.get(with - 1).id : 0)
+                .withWinnerScore(parse(binding.minScoreInput.getText()), parse(binding.maxScoreInput.getText()))
+                .withPlayerCount(count > 0 ? count + 1 : 0)
+                .withSort(binding.sortSpinner.getSelectedItemPosition());
+    }
+
+    private static Integer parse(CharSequence text) {
+        if (text == null || text.toString().trim().isEmpty()) return null;
+        try {
+            return Integer.valueOf(text.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public void show(Callback callback) {
+        new AlertDialog.Builder(context)
+                .setTitle("Filtrer l'historique")
+                .setView(binding.getRoot())
+                .setPositiveButton("Appliquer", (d, w) -> callback.onApply(collect()))
+                .setNeutralButton("Réinitialiser", (d, w) -> callback.onApply(HistoryQuery.ALL))
+                .setNegativeButton("Annuler", null)
+                .show();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.orchom;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Source paginée de l'historique (les plus récentes d'abord).
+ * Les pages sont chargées et converties en HistoryRow sur un thread de fond,
+ * et seules les MAX_PAGES dernières pages consultées restent en mémoire.
+ * Changer de requête invalide les pages ; les résultats d'une requête périmée sont ignorés.
+ * Toutes les méthodes publiques s'appellent depuis le thread principal.
+ */
+public class HistoryPager {
+
+    public interface Listener {
+        void onCountLoaded(int count);
+        void onPageLoaded(int start, int itemCount);
+    }
+
+    static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGES = 6;
+    private static final int PREFETCH_DISTANCE = 5;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private final LinkedHashMap<Integer, List<HistoryRow>> pages =
+            new LinkedHashMap<Integer, List<HistoryRow>>(MAX_PAGES + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<HistoryRow>> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+
+    private Listener listener;
+    private HistoryQuery query = HistoryQuery.ALL;
+    private volatile int generation = 0;
+    private int count = 0;
+    private boolean closed = false;
+
+    public HistoryPager(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Charge le nombre total d'entrées puis la première page.
+     */
+    public void start() {
+        final int gen = generation;
+        final HistoryQuery q = query;
+        executor.execute(() -> {
+            final int total = GameManager.getInstance().getHistoryCount(context, q);
+            mainHandler.post(() -> {
+                if (closed || gen != generation) return;
+                count = total;
+                if (listener != null) listener.onCountLoaded(total);
+                if (total > 0) loadPage(0);
+            });
+        });
+    }
+
+    /**
+     * Remplace la requête et recharge depuis le début.
+     */
+    public void setQuery(HistoryQuery newQuery) {
+        if (closed || newQuery.sameAs(query)) return;
+        query = newQuery;
+        reload();
+    }
+
+    /**
+     * Recharge depuis le début avec la même requête (après un import, par exemple).
+     */
+    public void reload() {
+        if (closed) return;
+        generation++;
+        pages.clear();
+        loadingPages.clear();
+        start();
+    }
+
+    public HistoryQuery getQuery() {
+        return query;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return l'entrée à cette position, ou null si sa page n'est pas encore chargée
+     */
+    public HistoryRow getItem(int position) {
+        int page = position / PAGE_SIZE;
+        int indexInPage = position % PAGE_SIZE;
+
+        if (indexInPage >= PAGE_SIZE - PREFETCH_DISTANCE && (page + 1) * PAGE_SIZE < count) {
+            loadPage(page + 1);
+        } else if (indexInPage < PREFETCH_DISTANCE && page > 0) {
+            loadPage(page - 1);
+        }
+
+        List<HistoryRow> items = pages.get(page);
+        if (items == null) {
+            loadPage(page);
+            return null;
+        }
+        return indexInPage < items.size() ? items.get(indexInPage) : null;
+    }
+
+    private void loadPage(final int page) {
+        if (closed || pages.containsKey(page) || loadingPages.contains(page)) return;
+        loadingPages.add(page);
+        final int gen = generation;
+        final HistoryQuery q = query;
+        executor.execute(() -> {
+            if (gen != generation) return; // Requête déjà remplacée (lecture sans verrou, au pire une page inutile)
+            List<JSONObject> entries = GameManager.getInstance()
+                    .getHistory(context, q, PAGE_SIZE, page * PAGE_SIZE);
+            final List<HistoryRow> items = new ArrayList<>(entries.size());
+            for (JSONObject entry : entries) {
+                items.add(HistoryRow.from(entry));
+            }
+            mainHandler.post(() -> {
+                if (closed || gen != generation) return;
+                loadingPages.remove(page);
+                pages.put(page, items);
+                if (listener != null) listener.onPageLoaded(page * PAGE_SIZE, items.size());
+            });
+        });
+    }
+
+    public void close() {
+        closed = true;
+        listener = null;
+        executor.shutdownNow();
+        pages.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.orchom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de la liste d'historique : recherche, filtres et tri, combinables entre eux.
+ * Immuable : chaque frappe ou changement de filtre crée une nouvelle requête.
+ */
+public final class HistoryQuery {
+
+    public static final int SORT_DATE = 0;         // Plus récentes d'abord
+    public static final int SORT_WINNER_SCORE = 1; // Meilleur (plus bas) score gagnant d'abord
+    public static final int SORT_ROUNDS = 2;       // Parties les plus longues d'abord
+
+    public static final HistoryQuery ALL = new HistoryQuery("", 0, 0, 0, 0, null, null, 0, SORT_DATE);
+
+    /** Texte saisi, tel quel. */
+    public final String search;
+    /** Mots normalisés, chacun recherché comme préfixe. */
+    final List<String> searchTokens;
+    /** Intervalle de dates [fromDate, toDate] en ms epoch, 0 = non borné. */
+    public final long fromDate;
+    public final long toDate;
+    /** Identifiants du registre des joueurs, 0 = tous. */
+    public final long wonBy;
+    public final long participant;
+    /** Bornes du score gagnant, null = non bornées. */
+    public final Integer minWinnerScore;
+    public final Integer maxWinnerScore;
+    /** Nombre de joueurs exact, 0 = tous. */
+    public final int playerCount;
+    public final int sort;
+
+    private HistoryQuery(String search, long fromDate, long toDate, long wonBy, long participant,
+                         Integer minWinnerScore, Integer maxWinnerScore, int playerCount, int sort) {
+        this.search = search;
+        this.searchTokens = new ArrayList<>(SearchTokens.tokenize(search));
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.wonBy = wonBy;
+        this.participant = participant;
+        this.minWinnerScore = minWinnerScore;
+        this.maxWinnerScore = maxWinnerScore;
+        this.playerCount = playerCount;
+        this.sort = sort;
+    }
+
+    public HistoryQuery withSearch(String text) {
+        return new HistoryQuery(text == null ? "" : text, fromDate, toDate, wonBy, participant,
+                minWinnerScore, maxWinnerScore, playerCount, sort);
+    }
+
+    /**
+     * Mêmes recherche et tri, filtres remplacés par ceux de {@code filters}.
+     */
+    public HistoryQuery withFilters(HistoryQuery filters) {
+        return new HistoryQuery(search, filters.fromDate, filters.toDate, filters.wonBy, filters.participant,
+                filters.minWinnerScore, filters.maxWinnerScore, filters.playerCount, filters.sort);
+    }
+
+    public HistoryQuery withDateRange(long from, long to) {
+        return new HistoryQuery(search, from, to, wonBy, participant, minWinnerScore, maxWinnerScore, playerCount, sort);
+    }
+
+    public HistoryQuery withWonBy(long playerId) {
+        return new HistoryQuery(search, fromDate, toDate, playerId, participant, minWinnerScore, maxWinnerScore, playerCount, sort);
+    }
+
+    public HistoryQuery withParticipant(long playerId) {
+        return new HistoryQuery(search, fromDate, toDate, wonBy, playerId, minWinnerScore, maxWinnerScore, playerCount, sort);
+    }
+
+    public HistoryQuery withWinnerScore(Integer min, Integer max) {
+        return new HistoryQuery(search, fromDate, toDate, wonBy, participant, min, max, playerCount, sort);
+    }
+
+    public HistoryQuery withPlayerCount(int count) {
+        return new HistoryQuery(search, fromDate, toDate, wonBy, participant, minWinnerScore, maxWinnerScore, count, sort);
+    }
+
+    public HistoryQuery withSort(int sortOrder) {
+        return new HistoryQuery(search, fromDate, toDate, wonBy, participant, minWinnerScore, maxWinnerScore, playerCount, sortOrder);
+    }
+
+    /**
+     * Nombre de filtres actifs (hors recherche et tri), pour l'affichage.
+     */
+    public int getFilterCount() {
+        int n = 0;
+        if (fromDate > 0 || toDate > 0) n++;
+        if (wonBy > 0) n++;
+        if (participant > 0) n++;
+        if (minWinnerScore != null || maxWinnerScore != null) n++;
+        if (playerCount > 0) n++;
+        return n;
+    }
+
+    /**
+     * Vrai sans recherche ni filtre (le tri n'en est pas un).
+     */
+    public boolean isEmpty() {
+        return searchTokens.isEmpty() && getFilterCount() == 0;
+    }
+
+    /**
+     * Même sélection et même ordre : inutile de recharger.
+     */
+    public boolean sameAs(HistoryQuery other) {
+        return searchTokens.equals(other.searchTokens) && fromDate == other.fromDate && toDate == other.toDate
+                && wonBy == other.wonBy && participant == other.participant
+                && equal(minWinnerScore, other.minWinnerScore) && equal(maxWinnerScore, other.maxWinnerScore)
+                && playerCount == other.playerCount && sort == other.sort;
+    }
+
+    private static boolean equal(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.orchom;
+
+import android.text.format.DateFormat;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.util.Date;
+
+/**
+ * Modèle immuable d'une ligne d'historique, préparé hors du thread principal
+ * pour que HistoryAdapter n'ait plus qu'à affecter les textes.
+ */
+public final class HistoryRow {
+    public final String winnerText;
+    public final String gameName;
+    public final String dateText;
+    public final String imagePath;      // null si aucune photo
+    public final String playersSummary;
+    public final String loserText;      // null si aucun perdant
+    public final String roundDetails;   // null si aucun score par manche
+    public final String gameId;         // null pour les entrées anciennes sans identifiant
+    public final boolean canReplay;     // identifiant et scores par manche disponibles
+
+    private HistoryRow(String winnerText, String gameName, String dateText, String imagePath,
+                       String playersSummary, String loserText, String roundDetails, String gameId) {
+        this.winnerText = winnerText;
+        this.gameName = gameName;
+        this.dateText = dateText;
+        this.imagePath = imagePath;
+        this.playersSummary = playersSummary;
+        this.loserText = loserText;
+        this.roundDetails = roundDetails;
+        this.gameId = gameId;
+        this.canReplay = gameId != null && roundDetails != null;
+    }
+
+    public static HistoryRow from(JSONObject entry) {
+        String winner = entry.optString("winner", "Inconnu");
+        int winnerScore = entry.optInt("winner_score", 0);
+        long timestamp = entry.optLong("date", 0);
+        String imagePath = entry.optString("image_path", null);
+        if (imagePath != null && imagePath.isEmpty()) imagePath = null;
+
+        String dateText = timestamp > 0
+                ? DateFormat.format("dd MMM yyyy, HH:mm", new Date(timestamp)).toString()
+                : "";
+
+        String playersSummary = "Détails indisponibles";
+        String loserText = null;
+        String roundDetails = null;
+
+        JSONArray playersArr = entry.optJSONArray("players");
+        if (playersArr != null) {
+            StringBuilder sb = new StringBuilder("Joueurs: ");
+            StringBuilder rounds = new StringBuilder("Par Round: ");
+            boolean hasRounds = false;
+            String[] names = new String[playersArr.length()];
+            int[] scores = new int[playersArr.length()];
+
+            for (int i = 0; i < playersArr.length(); i++) {
+                JSONObject pJson = playersArr.optJSONObject(i);
+                if (pJson == null) continue;
+                String name = pJson.optString("name");
+                int score = pJson.optInt("score");
+                names[i] = name;
+                scores[i] = score;
+                sb.append(name).append(" (").append(score).append(")");
+
+                JSONArray rArr = pJson.optJSONArray("roundScores");
+                if (rArr != null && rArr.length() > 0) {
+                    rounds.append(name).append(": ").append(rArr.toString());
+                    if (i < playersArr.length() - 1) rounds.append(" | ");
+                    hasRounds = true;
+                }
+
+                if (i < playersArr.length() - 1) sb.append(", ");
+            }
+            playersSummary = sb.toString();
+            if (hasRounds) roundDetails = rounds.toString();
+
+            // Même règle que les statistiques (HistoryDatabase.applyStats)
+            JSONObject config = entry.optJSONObject("config");
+            int loser = GameEngine.findRecordedLoserSeat(scores, config != null ? config.optInt("targetScore", 0) : 0);
+            if (loser >= 0 && names[loser] != null) {
+                loserText = "🔻 Perdant: " + names[loser] + " (" + scores[loser] + " pts)";
+            }
+        }
+
+        return new HistoryRow(
+                "🏆 " + winner + " (" + winnerScore + " pts)",
+                entry.optString("game_name", "Partie sans nom"),
+                dateText, imagePath, playersSummary, loserText, roundDetails,
+                entry.optString("game_id", null));
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.orchom;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Export et import de tout l'historique (manches comprises) en JSON ou CSV, via des URI
+ * du Storage Access Framework. Lecture et écriture en flux, une partie à la fois :
+ * la mémoire ne dépend pas de la taille de l'historique. Callbacks sur le thread principal.
+ *
+ * JSON : {"format": "orchom-history", "version": 1, "games": [entrée, ...]},
+ * chaque entrée au format JSON de HistoryDatabase. CSV : voir HistoryCsv.
+ */
+public class HistoryTransfer {
+
+    public static final String MIME_JSON = "application/json";
+    public static final String MIME_CSV = "text/csv";
+
+    private static final String FORMAT = "orchom-history";
+    private static final int FORMAT_VERSION = 1;
+    private static final int IMPORT_BATCH = 50;
+    private static final String SHARE_DIR = "export";
+
+    public interface Listener {
+        void onProgress(int percent);
+        /** @param games nombre de parties exportées ou importées ; file : fichier partageable, ou null */
+        void onComplete(int games, File file);
+        void onError(Exception e);
+    }
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "orchom-transfer"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean cancelled;
+
+    public HistoryTransfer(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void exportTo(Uri uri, String mimeType, Listener listener) {
+        run(listener, () -> {
+            OutputStream out = context.getContentResolver().openOutputStream(uri, "wt");
+            if (out == null) throw new IOException("Cannot open " + uri);
+            try {
+                return new Result(write(out, mimeType, listener), null);
+            } finally {
+                out.close();
+            }
+        });
+    }
+
+    /**
+     * Exporte dans le cache (file_paths.xml : cache-path) pour un partage via FileProvider.
+     */
+    public void exportForSharing(String mimeType, Listener listener) {
+        run(listener, () -> {
+            File dir = new File(context.getCacheDir(), SHARE_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            File file = new File(dir, "orchom-historique" + (MIME_CSV.equals(mimeType) ? ".csv" : ".json"));
+            OutputStream out = new FileOutputStream(file);
+            try {
+                return new Result(write(out, mimeType, listener), file);
+            } finally {
+                out.close();
+            }
+        });
+    }
+
+    public void importFrom(Uri uri, String mimeType, Listener listener) {
+        run(listener, () -> {
+            long size = querySize(uri);
+            InputStream raw = context.getContentResolver().openInputStream(uri);
+            if (raw == null) throw new IOException("Cannot open " + uri);
+            CountingInputStream in = new CountingInputStream(raw);
+            try {
+                return new Result(read(in, size, isCsv(uri, mimeType), listener), null);
+            } finally {
+                in.close();
+            }
+        });
+    }
+
+    /**
+     * Arrête le transfert en cours entre deux parties ; les lots déjà importés sont conservés.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdown();
+    }
+
+    // --- Export ---
+
+    private int write(OutputStream out, String mimeType, Listener listener) throws IOException {
+        HistoryDatabase db = GameManager.getInstance().getHistoryDatabase(context);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        final ProgressReporter progress = new ProgressReporter(listener);
+        int count;
+        if (MIME_CSV.equals(mimeType)) {
+            HistoryCsv.writeHeader(writer);
+            count = db.forEachGame((entry, index, total) -> {
+                HistoryCsv.writeGame(writer, entry);
+                progress.report(index + 1, total);
+                return !cancelled;
+            });
+        } else {
+            final JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("format").value(FORMAT);
+            json.name("version").value(FORMAT_VERSION);
+            json.name("games").beginArray();
+            count = db.forEachGame((entry, index, total) -> {
+                writeValue(json, entry);
+                progress.report(index + 1, total);
+                return !cancelled;
+            });
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+        writer.flush();
+        if (cancelled) throw new IOException("Export cancelled");
+        return count;
+    }
+
+    private static void writeValue(JsonWriter json, Object value) throws IOException {
+        if (value instanceof JSONObject) {
+            JSONObject obj = (JSONObject) value;
+            json.beginObject();
+            Iterator<String> keys = obj.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                json.name(key);
+                writeValue(json, obj.opt(key));
+            }
+            json.endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray arr = (JSONArray) value;
+            json.beginArray();
+            for (int i = 0; i < arr.length(); i++) writeValue(json, arr.opt(i));
+            json.endArray();
+        } else if (value instanceof Number) {
+            json.value((Number) value);
+        } else if (value instanceof Boolean) {
+            json.value((Boolean) value);
+        } else if (value == null || value == JSONObject.NULL) {
+            json.nullValue();
+        } else {
+            json.value(value.toString());
+        }
+    }
+
+    // --- Import ---
+
+    private int read(CountingInputStream in, long size, boolean csv, Listener listener) throws IOException {
+        HistoryDatabase db = GameManager.getInstance().getHistoryDatabase(context);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ProgressReporter progress = new ProgressReporter(listener);
+        List<JSONObject> batch = new ArrayList<>(IMPORT_BATCH);
+        int count = 0;
+        try {
+            if (csv) {
+                HistoryCsv.GameReader games = new HistoryCsv.GameReader(reader);
+                JSONObject entry;
+                while (!cancelled && (entry = games.next()) != null) {
+                    count += add(db, batch, entry);
+                    progress.report(in.count, size);
+                }
+            } else {
+                JsonReader json = new JsonReader(reader);
+                json.beginObject();
+                while (json.hasNext()) {
+                    String name = json.nextName();
+                    if ("format".equals(name)) {
+                        if (!FORMAT.equals(json.nextString())) throw new IOException("Not an Orchom history file");
+                    } else if ("games".equals(name)) {
+                        json.beginArray();
+                        while (!cancelled && json.hasNext()) {
+                            count += add(db, batch, (JSONObject) readValue(json));
+                            progress.report(in.count, size);
+                        }
+                        if (cancelled) break;
+                        json.endArray();
+                    } else {
+                        json.skipValue();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) db.upsertGames(batch);
+        } catch (JSONException e) {
+            throw new IOException("Bad history file", e);
+        }
+        return count;
+    }
+
+    /**
+     * Ajoute une partie au lot courant, importé en une transaction quand il est plein.
+     * Les identifiants du registre et les photos de l'appareil d'origine ne sont pas repris.
+     * Une partie sans game_id reçoit l'identifiant dérivé de son contenu : importer deux fois
+     * le même fichier met à jour les parties au lieu de les dupliquer.
+     */
+    private static int add(HistoryDatabase db, List<JSONObject> batch, JSONObject entry) throws JSONException {
+        if (!entry.has("winner") || !entry.has("date")) return 0;
+        String imagePath = entry.optString("image_path", null);
+        if (imagePath != null && !new File(imagePath).isFile()) entry.remove("image_path");
+        JSONArray players = entry.optJSONArray("players");
+        for (int i = 0; players != null && i < players.length(); i++) {
+            JSONObject p = players.optJSONObject(i);
+            if (p != null) p.remove("player_id");
+        }
+        JSONObject config = entry.optJSONObject("config");
+        if (config != null) config.remove("playerIds");
+        if (entry.optString("game_id", "").isEmpty()) entry.put("game_id", LegacyGameId.of(entry));
+        batch.add(entry);
+        if (batch.size() >= IMPORT_BATCH) {
+            db.upsertGames(batch);
+            batch.clear();
+        }
+        return 1;
+    }
+
+    private static Object readValue(JsonReader json) throws IOException, JSONException {
+        JsonToken token = json.peek();
+        switch (token) {
+            case BEGIN_OBJECT: {
+                JSONObject obj = new JSONObject();
+                json.beginObject();
+                while (json.hasNext()) {
+                    String name = json.nextName();
+                    obj.put(name, readValue(json));
+                }
+                json.endObject();
+                return obj;
+            }
+            case BEGIN_ARRAY: {
+                JSONArray arr = new JSONArray();
+                json.beginArray();
+                while (json.hasNext()) arr.put(readValue(json));
+                json.endArray();
+                return arr;
+            }
+            case NUMBER: {
+                String n = json.nextString();
+                try {
+                    return Long.parseLong(n);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(n);
+                }
+            }
+            case BOOLEAN:
+                return json.nextBoolean();
+            case NULL:
+                json.nextNull();
+                return JSONObject.NULL;
+            default:
+                return json.nextString();
+        }
+    }
+
+    private boolean isCsv(Uri uri, String mimeType) {
+        if (MIME_CSV.equals(mimeType)) return true;
+        String type = context.getContentResolver().getType(uri);
+        if (type != null) return type.startsWith("text/csv") || type.equals("text/comma-separated-values");
+        String path = uri.getLastPathSegment();
+        return path != null && path.toLowerCase(java.util.Locale.ROOT).endsWith(".csv");
+    }
+
+    private long querySize(Uri uri) {
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme()) && uri.getPath() != null) {
+            return new File(uri.getPath()).length();
+        }
+        Cursor c = context.getContentResolver().query(uri, new String[]{OpenableColumns.SIZE}, null, null, null);
+        if (c == null) return -1;
+        try {
+            return c.moveToFirst() && !c.isNull(0) ? c.getLong(0) : -1;
+        } finally {
+            c.close();
+        }
+    }
+
+    // --- Plomberie ---
+
+    private interface Task {
+        Result call() throws IOException;
+    }
+
+    private static final class Result {
+        final int games;
+        final File file;
+
+        Result(int games, File file) {
+            this.games = games;
+            this.file = file;
+        }
+    }
+
+    private void run(Listener listener, Task task) {
+        cancelled = false;
+        executor.execute(() -> {
+            try {
+                Result result = task.call();
+                mainHandler.post(() -> listener.onComplete(result.games, result.file));
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                mainHandler.post(() -> listener.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Ne poste qu'aux changements de pourcentage (pas un message par partie).
+     */
+    private final class ProgressReporter {
+        private final Listener listener;
+        private int last = -1;
+
+        ProgressReporter(Listener listener) {
+            this.listener = listener;
+        }
+
+        void report(long done, long total) {
+            if (total <= 0) return;
+            final int percent = (int) Math.min(100, done * 100 / total);
+            if (percent == last) return;
+            last = percent;
+            mainHandler.post(() -> listener.onProgress(percent));
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.orchom;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.format.DateUtils;
 import android.view.View;
 import com.example.orchom.databinding.ContentHomeBinding;
 
@@ -15,7 +16,6 @@ public class HomeActivity extends BaseActivity {
         binding = ContentHomeBinding.inflate(getLayoutInflater(), baseBinding.container, true);
 
         setupClickListeners();
-        updateResumeVisibility();
     }
 
     @Override
@@ -38,10 +38,14 @@ public class HomeActivity extends BaseActivity {
     }
 
     private void updateResumeVisibility() {
-        GameManager gameManager = GameManager.getInstance();
-        gameManager.restoreGame(getApplicationContext());
+        // En-tête seulement : la partie n'est restaurée qu'à l'ouverture de GameActivity
+        ActiveGameHeader header = GameManager.getInstance().peekActiveGame(getApplicationContext());
 
-        if (gameManager.isGameActive()) {
+        if (header.active) {
+            int tables = GameManager.getInstance().getTableCount(getApplicationContext());
+            CharSequence subtitle = describe(header);
+            binding.resumeSubtitle.setText(tables > 1 ? subtitle + " · " + tables + " tables" : subtitle);
+            if (binding.resumeButton.getVisibility() == View.VISIBLE) return;
             binding.resumeButton.setVisibility(View.VISIBLE);
             binding.resumeButton.setAlpha(0f);
             binding.resumeButton.animate().alpha(1f).setDuration(300).start();
@@ -50,6 +54,16 @@ public class HomeActivity extends BaseActivity {
         }
     }
 
+    private CharSequence describe(ActiveGameHeader header) {
+        if (header.round <= 0) return "Partie en cours...";
+        String text = "Manche " + header.round;
+        if (header.lastModified > 0) {
+            text += " · " + DateUtils.getRelativeTimeSpanString(header.lastModified,
+                    System.currentTimeMillis(), DateUtils.MINUTE_IN_MILLIS);
+        }
+        return text;
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
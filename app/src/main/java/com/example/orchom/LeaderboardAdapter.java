@@ -0,0 +1,130 @@
+package com.example.orchom;
+
+import android.content.res.ColorStateList;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.orchom.databinding.PlayerCardLayoutBinding;
+import java.util.List;
+
+/**
+ * Classement de la partie en cours. Les mises à jour passent par DiffUtil :
+ * seules les cartes dont le score ou le rang a changé sont re-liées, et les
+ * changements d'ordre sont animés.
+ */
+public class LeaderboardAdapter extends ListAdapter<LeaderboardAdapter.Row, LeaderboardAdapter.ViewHolder> {
+
+    public static final int STATUS_NORMAL = 0;
+    public static final int STATUS_WARNING = 1;
+    public static final int STATUS_LOST = 2;
+
+    // Couleurs pré-calculées (plus de Color.parseColor par carte)
+    private static final int COLOR_SCORE_LOST = 0xFFEF4444;    // Rouge Danger (Perdu)
+    private static final int COLOR_SCORE_WARNING = 0xFFF59E0B; // Orange Warning
+    private static final int COLOR_SCORE_NORMAL = 0xFF0F172A;  // Normal
+    private static final ColorStateList RANK_LOST = ColorStateList.valueOf(0xFF0F172A);
+    private static final ColorStateList RANK_WARNING = ColorStateList.valueOf(0xFFE11D48);
+    private static final ColorStateList RANK_NORMAL = ColorStateList.valueOf(0xFF10B981);
+
+    private static final Object PAYLOAD_SCORE = new Object();
+
+    /**
+     * Ligne immuable du classement.
+     */
+    public static final class Row {
+        final int playerId;
+        final String name;
+        final int score;
+        final int rank;
+        final int status;
+        final int color;
+
+        public Row(int playerId, String name, int score, int rank, int status, int color) {
+            this.playerId = playerId;
+            this.name = name;
+            this.score = score;
+            this.rank = rank;
+            this.status = status;
+            this.color = color;
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<Row> DIFF = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.playerId == newItem.playerId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.score == newItem.score && oldItem.rank == newItem.rank
+                    && oldItem.status == newItem.status && oldItem.color == newItem.color
+                    && oldItem.name.equals(newItem.name);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Row oldItem, @NonNull Row newItem) {
+            boolean sameIdentity = oldItem.color == newItem.color && oldItem.name.equals(newItem.name);
+            return sameIdentity ? PAYLOAD_SCORE : null;
+        }
+    };
+
+    public LeaderboardAdapter() {
+        super(DIFF);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new ViewHolder(PlayerCardLayoutBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Row row = getItem(position);
+        holder.binding.playerName.setText(row.name);
+        holder.binding.colorIndicator.setBackgroundColor(row.color);
+        bindScore(holder, row);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            bindScore(holder, getItem(position)); // Nom et couleur inchangés
+        }
+    }
+
+    private void bindScore(ViewHolder holder, Row row) {
+        holder.binding.rankPosition.setText(String.valueOf(row.rank));
+        holder.binding.playerScore.setText(String.valueOf(row.score));
+        switch (row.status) {
+            case STATUS_LOST:
+                holder.binding.playerScore.setTextColor(COLOR_SCORE_LOST);
+                holder.binding.rankPosition.setBackgroundTintList(RANK_LOST);
+                break;
+            case STATUS_WARNING:
+                holder.binding.playerScore.setTextColor(COLOR_SCORE_WARNING);
+                holder.binding.rankPosition.setBackgroundTintList(RANK_WARNING);
+                break;
+            default:
+                holder.binding.playerScore.setTextColor(COLOR_SCORE_NORMAL);
+                holder.binding.rankPosition.setBackgroundTintList(RANK_NORMAL);
+                break;
+        }
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        final PlayerCardLayoutBinding binding;
+
+        ViewHolder(PlayerCardLayoutBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
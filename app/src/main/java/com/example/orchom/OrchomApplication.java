@@ -11,6 +11,16 @@ public class OrchomApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-        // Global app initialization can be added here if needed
+        // Archivage de l'historique ancien, appareil inactif ou en charge
+        HistoryArchiver.schedule(this);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            // Tables non sélectionnées écrites sur disque puis déchargées
+            GameManager.getInstance().trimTables(this);
+        }
     }
 }
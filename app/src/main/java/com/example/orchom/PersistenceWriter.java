@@ -0,0 +1,99 @@
+package com.example.orchom;
+
+import android.os.SystemClock;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unique thread d'écriture de la persistance.
+ * Les tâches s'exécutent dans l'ordre de soumission ; une tâche soumise avec la même clé
+ * que la dernière tâche encore en attente la remplace (écritures rapprochées fusionnées).
+ */
+public class PersistenceWriter {
+
+    private static final long FLUSH_TIMEOUT_MS = 2000;
+
+    private static class Entry {
+        final String key;
+        Runnable task;
+
+        Entry(String key, Runnable task) {
+            this.key = key;
+            this.task = task;
+        }
+    }
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private final ExecutorService thread;
+    private volatile Thread writerThread;
+    private boolean running = false;
+
+    public PersistenceWriter() {
+        thread = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "orchom-writer");
+            writerThread = t;
+            return t;
+        });
+    }
+
+    /**
+     * @param coalesceKey clé de fusion, ou null pour une tâche qui ne doit jamais être fusionnée
+     */
+    public void submit(String coalesceKey, Runnable task) {
+        synchronized (lock) {
+            Entry tail = queue.peekLast();
+            if (coalesceKey != null && tail != null && coalesceKey.equals(tail.key)) {
+                tail.task = task; // L'état le plus récent remplace celui en attente
+                return;
+            }
+            queue.addLast(new Entry(coalesceKey, task));
+            if (!running) {
+                running = true;
+                thread.execute(this::drain);
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Entry next;
+            synchronized (lock) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    running = false;
+                    lock.notifyAll();
+                    return;
+                }
+            }
+            try {
+                next.task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Attend que toutes les écritures soumises soient appliquées (onStop, lectures cohérentes).
+     * @return false si le délai a expiré
+     */
+    public boolean flush() {
+        if (Thread.currentThread() == writerThread) return true;
+        synchronized (lock) {
+            long deadline = SystemClock.uptimeMillis() + FLUSH_TIMEOUT_MS;
+            while (running) {
+                long remaining = deadline - SystemClock.uptimeMillis();
+                if (remaining <= 0) return false;
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
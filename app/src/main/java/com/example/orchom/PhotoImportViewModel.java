@@ -0,0 +1,85 @@
+package com.example.orchom;
+
+import android.app.Application;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Import de la photo des résultats, conservé à travers les recréations de l'écran (rotation) :
+ * un import lancé avant la recréation livre son résultat au nouvel écran, qui l'enregistre.
+ */
+public class PhotoImportViewModel extends AndroidViewModel {
+
+    /**
+     * État de l'import : en cours (progression), terminé (chemin et aperçu) ou en échec.
+     */
+    public static final class State {
+        public final int percent;
+        public final String path;      // Non null une fois l'import terminé
+        public final Bitmap preview;
+        public final boolean failed;
+
+        private State(int percent, String path, Bitmap preview, boolean failed) {
+            this.percent = percent;
+            this.path = path;
+            this.preview = preview;
+            this.failed = failed;
+        }
+
+        public boolean isRunning() {
+            return path == null && !failed;
+        }
+    }
+
+    private final PhotoImporter importer;
+    private final MutableLiveData<State> state = new MutableLiveData<>();
+
+    public PhotoImportViewModel(@NonNull Application application) {
+        super(application);
+        importer = new PhotoImporter(application);
+    }
+
+    /**
+     * Dernier état non encore traité, ou null ; les callbacks arrivent sur le thread principal.
+     */
+    public LiveData<State> getState() {
+        return state;
+    }
+
+    public void importPhoto(Uri uri) {
+        state.setValue(new State(0, null, null, false));
+        importer.importPhoto(uri, new PhotoImporter.Callback() {
+            @Override
+            public void onProgress(int percent) {
+                state.setValue(new State(percent, null, null, false));
+            }
+
+            @Override
+            public void onComplete(String path, Bitmap preview) {
+                state.setValue(new State(100, path, preview, false));
+            }
+
+            @Override
+            public void onError() {
+                state.setValue(new State(0, null, null, true));
+            }
+        });
+    }
+
+    /**
+     * Résultat (chemin ou échec) pris en compte par l'écran : il ne sera pas relivré après une rotation.
+     */
+    public void consumeResult() {
+        State current = state.getValue();
+        if (current != null && !current.isRunning()) state.setValue(null);
+    }
+
+    @Override
+    protected void onCleared() {
+        importer.shutdown();
+    }
+}
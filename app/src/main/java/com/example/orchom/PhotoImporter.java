@@ -0,0 +1,159 @@
+package com.example.orchom;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Import d'une photo de la galerie en arrière-plan :
+ * décodage sous-échantillonné, orientation EXIF appliquée, puis ré-encodage JPEG
+ * à une résolution et une qualité plafonnées. Les callbacks arrivent sur le thread principal.
+ */
+public class PhotoImporter {
+
+    public interface Callback {
+        void onProgress(int percent);
+        void onComplete(String path, Bitmap preview);
+        void onError();
+    }
+
+    private static final int MAX_DIMENSION = 1600;
+    private static final int JPEG_QUALITY = 85;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public PhotoImporter(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void importPhoto(final Uri uri, final Callback callback) {
+        executor.execute(() -> {
+            try {
+                File outputFile = importBlocking(uri, callback);
+                Bitmap preview = outputFile != null
+                        ? ThumbnailLoader.decodeSampledBitmapFromFile(outputFile.getAbsolutePath(), 800, 800)
+                        : null;
+                mainHandler.post(() -> {
+                    if (outputFile != null) {
+                        callback.onComplete(outputFile.getAbsolutePath(), preview);
+                    } else {
+                        callback.onError();
+                    }
+                });
+            } catch (IOException | OutOfMemoryError e) {
+                e.printStackTrace();
+                mainHandler.post(callback::onError);
+            }
+        });
+    }
+
+    /**
+     * Termine les imports en cours sans en accepter de nouveaux.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private File importBlocking(Uri uri, Callback callback) throws IOException {
+        // 1. Dimensions seules
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = context.getContentResolver().openInputStream(uri);
+        if (in == null) return null;
+        try {
+            BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+        postProgress(callback, 10);
+
+        // 2. Orientation EXIF
+        int orientation = ExifInterface.ORIENTATION_NORMAL;
+        in = context.getContentResolver().openInputStream(uri);
+        if (in != null) {
+            try {
+                orientation = new ExifInterface(in).getAttributeInt(
+                        ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            } finally {
+                in.close();
+            }
+        }
+        postProgress(callback, 20);
+
+        // 3. Décodage sous-échantillonné
+        options.inSampleSize = ThumbnailLoader.calculateInSampleSize(
+                options.outWidth, options.outHeight, MAX_DIMENSION, MAX_DIMENSION);
+        options.inJustDecodeBounds = false;
+        in = context.getContentResolver().openInputStream(uri);
+        if (in == null) return null;
+        Bitmap decoded;
+        try {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        if (decoded == null) return null;
+        postProgress(callback, 60);
+
+        // 4. Mise à l'échelle finale + orientation
+        Matrix matrix = orientationMatrix(orientation);
+        float scale = Math.min(1f, (float) MAX_DIMENSION / Math.max(decoded.getWidth(), decoded.getHeight()));
+        if (scale < 1f) matrix.postScale(scale, scale);
+        Bitmap output = matrix.isIdentity() ? decoded
+                : Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (output != decoded) decoded.recycle();
+        postProgress(callback, 80);
+
+        // 5. Ré-encodage (fichier temporaire puis renommage)
+        File outputDir = context.getExternalFilesDir(android.os.Environment.DIRECTORY_PICTURES);
+        File outputFile = new File(outputDir, "orchom_" + System.currentTimeMillis() + ".jpg");
+        File tmpFile = new File(outputDir, outputFile.getName() + ".tmp");
+        boolean encoded;
+        FileOutputStream out = new FileOutputStream(tmpFile);
+        try {
+            encoded = output.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        } finally {
+            out.close();
+            output.recycle();
+        }
+        if (!encoded || !tmpFile.renameTo(outputFile)) {
+            tmpFile.delete();
+            return null;
+        }
+        postProgress(callback, 100);
+        return outputFile;
+    }
+
+    private static Matrix orientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90: matrix.postRotate(90); break;
+            case ExifInterface.ORIENTATION_ROTATE_180: matrix.postRotate(180); break;
+            case ExifInterface.ORIENTATION_ROTATE_270: matrix.postRotate(270); break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL: matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL: matrix.postScale(1, -1); break;
+            case ExifInterface.ORIENTATION_TRANSPOSE: matrix.postRotate(90); matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_TRANSVERSE: matrix.postRotate(270); matrix.postScale(-1, 1); break;
+            default: break;
+        }
+        return matrix;
+    }
+
+    private void postProgress(Callback callback, int percent) {
+        mainHandler.post(() -> callback.onProgress(percent));
+    }
+}
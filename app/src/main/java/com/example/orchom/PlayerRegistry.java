@@ -0,0 +1,223 @@
+package com.example.orchom;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registre des joueurs : un identifiant stable par personne, quel que soit le nom saisi.
+ * Chaque nom connu (insensible à la casse) est un alias pointant vers un identifiant ;
+ * fusionner deux joueurs réattribue leurs alias, leurs parties et leurs statistiques.
+ * Tables dans history.db (voir HistoryDatabase).
+ */
+public class PlayerRegistry {
+
+    /**
+     * Entrée du registre.
+     */
+    public static final class Entry {
+        public final long id;
+        public final String displayName;
+
+        Entry(long id, String displayName) {
+            this.id = id;
+            this.displayName = displayName;
+        }
+    }
+
+    private final HistoryDatabase database;
+
+    public PlayerRegistry(HistoryDatabase database) {
+        this.database = database;
+    }
+
+    static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + HistoryDatabase.T_REGISTRY + " ("
+                + "_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "display_name TEXT NOT NULL, "
+                + "created INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE " + HistoryDatabase.T_ALIASES + " ("
+                + "alias TEXT PRIMARY KEY COLLATE NOCASE, "
+                + "player_id INTEGER NOT NULL REFERENCES " + HistoryDatabase.T_REGISTRY + "(_id) ON DELETE CASCADE)");
+        db.execSQL("CREATE INDEX idx_aliases_player ON " + HistoryDatabase.T_ALIASES + "(player_id)");
+    }
+
+    /**
+     * Identifiant du joueur portant ce nom, créé au besoin. Recherche indexée sur l'alias.
+     */
+    static long resolve(SQLiteDatabase db, String name) {
+        String alias = name == null ? "" : name.trim();
+        Cursor c = db.rawQuery("SELECT player_id FROM " + HistoryDatabase.T_ALIASES + " WHERE alias = ?",
+                new String[]{alias});
+        try {
+            if (c.moveToFirst()) return c.getLong(0);
+        } finally {
+            c.close();
+        }
+        ContentValues player = new ContentValues();
+        player.put("display_name", alias);
+        player.put("created", System.currentTimeMillis());
+        long id = db.insertOrThrow(HistoryDatabase.T_REGISTRY, null, player);
+        ContentValues row = new ContentValues();
+        row.put("alias", alias);
+        row.put("player_id", id);
+        db.insertOrThrow(HistoryDatabase.T_ALIASES, null, row);
+        return id;
+    }
+
+    /**
+     * Garde l'identifiant fourni s'il existe encore (il a pu être fusionné depuis), sinon résout le nom.
+     */
+    static long resolve(SQLiteDatabase db, long playerId, String name) {
+        if (playerId > 0) {
+            Cursor c = db.rawQuery("SELECT 1 FROM " + HistoryDatabase.T_REGISTRY + " WHERE _id = ?",
+                    new String[]{String.valueOf(playerId)});
+            try {
+                if (c.moveToFirst()) return playerId;
+            } finally {
+                c.close();
+            }
+        }
+        return resolve(db, name);
+    }
+
+    /**
+     * Identifiants des joueurs d'une nouvelle partie (créés au besoin), dans l'ordre des sièges.
+     */
+    public long[] resolveAll(String[] names) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        long[] ids = new long[names.length];
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < names.length; i++) ids[i] = resolve(db, names[i]);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return ids;
+    }
+
+    /**
+     * Rattache un nom supplémentaire à un joueur. Sans effet si le nom est déjà pris.
+     * @return false si le nom désigne déjà un autre joueur (voir merge)
+     */
+    public boolean addAlias(long playerId, String alias) {
+        ContentValues row = new ContentValues();
+        row.put("alias", alias.trim());
+        row.put("player_id", playerId);
+        long inserted = database.getWritableDatabase().insertWithOnConflict(
+                HistoryDatabase.T_ALIASES, null, row, SQLiteDatabase.CONFLICT_IGNORE);
+        return inserted != -1 || resolveExisting(alias) == playerId;
+    }
+
+    private long resolveExisting(String alias) {
+        Cursor c = database.getReadableDatabase().rawQuery("SELECT player_id FROM " + HistoryDatabase.T_ALIASES
+                + " WHERE alias = ?", new String[]{alias.trim()});
+        try {
+            return c.moveToFirst() ? c.getLong(0) : 0;
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Change le nom affiché ; l'ancien nom reste un alias, le nouveau en devient un.
+     * @return false, sans rien changer, si le nouveau nom désigne déjà un autre joueur (voir merge)
+     */
+    public boolean rename(long playerId, String displayName) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (!addAlias(playerId, displayName)) return false;
+            ContentValues values = new ContentValues();
+            values.put("display_name", displayName.trim());
+            db.update(HistoryDatabase.T_REGISTRY, values, "_id = ?", new String[]{String.valueOf(playerId)});
+            reindexGames(db, playerId);
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Fusionne {@code fromId} dans {@code intoId} : alias, parties, statistiques et index de recherche.
+     * Les statistiques du joueur conservé sont recalculées sur ses parties (index idx_players_pid),
+     * qui sont réindexées sous son nom.
+     * Refusée si les deux joueurs ont joué une même partie : ce sont alors deux personnes, et la
+     * partie compterait deux sièges pour un seul joueur.
+     * @return false si la fusion est refusée
+     */
+    public boolean merge(long fromId, long intoId) {
+        if (fromId == intoId) return true;
+        SQLiteDatabase db = database.getWritableDatabase();
+        String[] from = {String.valueOf(fromId)};
+        db.beginTransaction();
+        try {
+            if (DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM " + HistoryDatabase.T_PLAYERS + " a"
+                    + " JOIN " + HistoryDatabase.T_PLAYERS + " b ON b.game_id = a.game_id"
+                    + " WHERE a.player_id = ? AND b.player_id = ?",
+                    new String[]{String.valueOf(fromId), String.valueOf(intoId)}) > 0) {
+                return false;
+            }
+            ContentValues target = new ContentValues();
+            target.put("player_id", intoId);
+            db.update(HistoryDatabase.T_ALIASES, target, "player_id = ?", from);
+            db.update(HistoryDatabase.T_PLAYERS, target, "player_id = ?", from);
+            ContentValues winner = new ContentValues();
+            winner.put("winner_id", intoId);
+            db.update(HistoryDatabase.T_GAMES, winner, "winner_id = ?", from);
+
+            String[] both = {String.valueOf(fromId), String.valueOf(intoId)};
+            db.delete(HistoryDatabase.T_STATS, "player_id IN (?, ?)", both);
+            db.delete(HistoryDatabase.T_REGISTRY, "_id = ?", from);
+
+            Cursor c = db.rawQuery("SELECT DISTINCT game_id FROM " + HistoryDatabase.T_PLAYERS + " WHERE player_id = ?",
+                    new String[]{String.valueOf(intoId)});
+            try {
+                while (c.moveToNext()) {
+                    HistoryDatabase.applyStats(db, c.getLong(0), 1, intoId);
+                    HistoryDatabase.indexGame(db, c.getLong(0));
+                }
+            } finally {
+                c.close();
+            }
+            db.setTransactionSuccessful();
+            return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void reindexGames(SQLiteDatabase db, long playerId) {
+        Cursor c = db.rawQuery("SELECT DISTINCT game_id FROM " + HistoryDatabase.T_PLAYERS + " WHERE player_id = ?",
+                new String[]{String.valueOf(playerId)});
+        try {
+            while (c.moveToNext()) {
+                HistoryDatabase.indexGame(db, c.getLong(0));
+            }
+        } finally {
+            c.close();
+        }
+    }
+
+    /**
+     * Tous les joueurs connus, par nom.
+     */
+    public List<Entry> list() {
+        List<Entry> players = new ArrayList<>();
+        Cursor c = database.getReadableDatabase().rawQuery("SELECT _id, display_name FROM " + HistoryDatabase.T_REGISTRY
+                + " ORDER BY display_name COLLATE NOCASE", null);
+        try {
+            while (c.moveToNext()) {
+                players.add(new Entry(c.getLong(0), c.getString(1)));
+            }
+        } finally {
+            c.close();
+        }
+        return players;
+    }
+}
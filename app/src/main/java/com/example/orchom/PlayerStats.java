@@ -0,0 +1,44 @@
+package com.example.orchom;
+
+/**
+ * Statistiques cumulées d'un joueur sur tout l'historique (table player_stats).
+ * Rappel : le score le plus BAS gagne, la meilleure manche est donc la plus basse.
+ */
+public final class PlayerStats {
+    /** Meilleure / pire manche inconnue (aucune manche enregistrée). */
+    public static final int NO_ROUND = Integer.MIN_VALUE;
+
+    public final long playerId;
+    public final String name;
+    public final int games;
+    public final int wins;
+    public final int losses;
+    public final long finalScoreSum;
+    public final int roundCount;
+    public final long roundScoreSum;
+    /** NO_ROUND si inconnue. */
+    public final int bestRound;
+    public final int worstRound;
+
+    public PlayerStats(long playerId, String name, int games, int wins, int losses, long finalScoreSum,
+                       int roundCount, long roundScoreSum, int bestRound, int worstRound) {
+        this.playerId = playerId;
+        this.name = name;
+        this.games = games;
+        this.wins = wins;
+        this.losses = losses;
+        this.finalScoreSum = finalScoreSum;
+        this.roundCount = roundCount;
+        this.roundScoreSum = roundScoreSum;
+        this.bestRound = bestRound;
+        this.worstRound = worstRound;
+    }
+
+    public double getAverageFinalScore() {
+        return games > 0 ? (double) finalScoreSum / games : 0;
+    }
+
+    public double getAverageRoundScore() {
+        return roundCount > 0 ? (double) roundScoreSum / roundCount : 0;
+    }
+}
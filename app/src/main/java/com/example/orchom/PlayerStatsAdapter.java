@@ -0,0 +1,74 @@
+package com.example.orchom;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import com.example.orchom.databinding.PlayerStatsItemBinding;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Statistiques cumulées des joueurs (onglet JOUEURS de l'historique).
+ * Un appui sur un joueur ouvre ses actions (renommer, ajouter un nom, fusionner).
+ */
+public class PlayerStatsAdapter extends RecyclerView.Adapter<PlayerStatsAdapter.ViewHolder> {
+
+    public interface OnPlayerClickListener {
+        void onPlayerClick(PlayerStats stats);
+    }
+
+    private List<PlayerStats> stats = new ArrayList<>();
+    private final OnPlayerClickListener listener;
+
+    public PlayerStatsAdapter(OnPlayerClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setStats(List<PlayerStats> stats) {
+        this.stats = stats;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new ViewHolder(PlayerStatsItemBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        PlayerStats s = stats.get(position);
+        holder.itemView.setOnClickListener(v -> listener.onPlayerClick(s));
+        holder.binding.statsPlayerName.setText(s.name);
+        holder.binding.statsRecord.setText(s.wins + " V · " + s.losses + " D");
+        holder.binding.statsAverages.setText(String.format(Locale.FRANCE, "%d partie%s · moyenne finale %.0f pts",
+                s.games, s.games > 1 ? "s" : "", s.getAverageFinalScore()));
+        if (s.roundCount > 0) {
+            holder.binding.statsRounds.setText(String.format(Locale.FRANCE, "Manche : moyenne %.1f · meilleure %s · pire %s",
+                    s.getAverageRoundScore(), formatRound(s.bestRound), formatRound(s.worstRound)));
+        } else {
+            holder.binding.statsRounds.setText("Aucune manche enregistrée");
+        }
+    }
+
+    private static String formatRound(int score) {
+        return score == PlayerStats.NO_ROUND ? "—" : String.valueOf(score);
+    }
+
+    @Override
+    public int getItemCount() {
+        return stats.size();
+    }
+
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        final PlayerStatsItemBinding binding;
+
+        ViewHolder(PlayerStatsItemBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
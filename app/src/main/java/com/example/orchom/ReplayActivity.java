@@ -0,0 +1,212 @@
+package com.example.orchom;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+import android.widget.SeekBar;
+import android.widget.Toast;
+import com.example.orchom.databinding.ContentReplayBinding;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Rejeu d'une partie terminée de l'historique, manche par manche.
+ * La chronologie (cumuls et rangs de chaque manche) est calculée une fois au chargement,
+ * hors du thread UI ; lecture, pas à pas et défilement ne font ensuite que des accès directs.
+ */
+public class ReplayActivity extends BaseActivity {
+
+    private static final String EXTRA_GAME_ID = "game_id";
+    private static final long STEP_MS = 600;   // Durée d'une manche en lecture
+    private static final long SEEK_MS = 250;   // Transition d'un pas ou d'un défilement
+
+    private ContentReplayBinding binding;
+    private ReplayTimeline timeline;
+    private ValueAnimator animator;
+    private boolean playing;
+    private int shownStep = -1;
+
+    public static Intent newIntent(Context context, String gameId) {
+        return new Intent(context, ReplayActivity.class).putExtra(EXTRA_GAME_ID, gameId);
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ContentReplayBinding.inflate(getLayoutInflater(), baseBinding.container, true);
+
+        final String gameId = getIntent().getStringExtra(EXTRA_GAME_ID);
+        final Context appContext = getApplicationContext();
+        background.load("replay", () -> {
+            JSONObject entry = gameId != null ? GameManager.getInstance().getHistoryGame(appContext, gameId) : null;
+            return entry != null ? Replay.from(appContext, entry) : null;
+        }, replay -> {
+            if (binding == null) return;
+            if (replay == null) {
+                Toast.makeText(this, "Partie introuvable", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            show(replay);
+        });
+    }
+
+    @Override
+    protected String getActivityTitle() {
+        return "Rejeu";
+    }
+
+    private void show(Replay replay) {
+        timeline = replay.timeline;
+        binding.replayGameName.setText(replay.gameName);
+        binding.replayView.setTimeline(timeline, replay.names, replay.colors);
+
+        binding.replaySeekBar.setMax(timeline.getRoundCount());
+        binding.replaySeekBar.setEnabled(true);
+        binding.replaySeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                if (fromUser) seek(progress);
+            }
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+                pause();
+            }
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {}
+        });
+
+        binding.replayPrevButton.setEnabled(true);
+        binding.replayNextButton.setEnabled(true);
+        binding.replayPlayButton.setEnabled(true);
+        binding.replayPrevButton.setOnClickListener(v -> {
+            pause();
+            seek((int) Math.ceil(binding.replayView.getPosition()) - 1);
+        });
+        binding.replayNextButton.setOnClickListener(v -> {
+            pause();
+            seek((int) binding.replayView.getPosition() + 1);
+        });
+        binding.replayPlayButton.setOnClickListener(v -> {
+            if (playing) pause(); else play();
+        });
+
+        updateStep(0);
+        if (timeline.getRoundCount() > 0) play();
+    }
+
+    private void play() {
+        float from = binding.replayView.getPosition();
+        int last = timeline.getRoundCount();
+        if (from >= last) from = 0; // Relecture depuis le début
+        playing = true;
+        binding.replayPlayButton.setText("PAUSE");
+        animate(from, last, (long) ((last - from) * STEP_MS), new LinearInterpolator());
+    }
+
+    private void pause() {
+        playing = false;
+        if (animator != null) animator.cancel();
+        if (binding != null) binding.replayPlayButton.setText("LECTURE");
+    }
+
+    private void seek(int step) {
+        int target = Math.max(0, Math.min(step, timeline.getRoundCount()));
+        animate(binding.replayView.getPosition(), target, SEEK_MS, new DecelerateInterpolator());
+    }
+
+    private void animate(float from, float to, long duration, android.animation.TimeInterpolator interpolator) {
+        if (animator != null) {
+            animator.removeAllListeners();
+            animator.cancel();
+        }
+        animator = ValueAnimator.ofFloat(from, to);
+        animator.setDuration(Math.max(1, duration));
+        animator.setInterpolator(interpolator);
+        animator.addUpdateListener(a -> {
+            float position = (float) a.getAnimatedValue();
+            binding.replayView.setPosition(position);
+            updateStep(Math.round(position));
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (playing) pause();
+            }
+        });
+        animator.start();
+    }
+
+    /**
+     * Libellé et curseur, mis à jour seulement quand l'étape affichée change.
+     */
+    private void updateStep(int step) {
+        if (step == shownStep) return;
+        shownStep = step;
+        int rounds = timeline.getRoundCount();
+        if (step == 0) {
+            binding.replayRoundText.setText("DÉPART · " + rounds + " MANCHES");
+        } else {
+            binding.replayRoundText.setText("MANCHE " + step + " / " + rounds);
+        }
+        binding.replaySeekBar.setProgress(step);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        pause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (animator != null) {
+            animator.removeAllListeners();
+            animator.removeAllUpdateListeners();
+            animator.cancel();
+        }
+        binding = null;
+    }
+
+    /**
+     * Partie préparée hors du thread UI : noms, couleurs et chronologie.
+     */
+    private static final class Replay {
+        final String gameName;
+        final String[] names;
+        final int[] colors;
+        final ReplayTimeline timeline;
+
+        private Replay(String gameName, String[] names, int[] colors, ReplayTimeline timeline) {
+            this.gameName = gameName;
+            this.names = names;
+            this.colors = colors;
+            this.timeline = timeline;
+        }
+
+        static Replay from(Context context, JSONObject entry) {
+            JSONArray players = entry.optJSONArray("players");
+            int count = players != null ? players.length() : 0;
+            String[] names = new String[count];
+            int[] colors = new int[count];
+            int[][] scores = new int[count][];
+            for (int i = 0; i < count; i++) {
+                JSONObject p = players.optJSONObject(i);
+                JSONArray rounds = p != null ? p.optJSONArray("roundScores") : null;
+                names[i] = p != null ? p.optString("name") : "";
+                colors[i] = ColorManager.parseColor(p != null ? p.optString("color", null) : null,
+                        ColorManager.getPlayerColor(context, i));
+                scores[i] = new int[rounds != null ? rounds.length() : 0];
+                for (int r = 0; r < scores[i].length; r++) scores[i][r] = rounds.optInt(r);
+            }
+            return new Replay(entry.optString("game_name", "Partie sans nom"), names, colors,
+                    ReplayTimeline.build(scores));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.orchom;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import androidx.core.content.ContextCompat;
+
+/**
+ * Classement animé d'une partie rejouée : une barre par joueur, triée par rang.
+ * La position est une étape fractionnaire (3.4 = 40 % du chemin entre les manches 3 et 4) :
+ * rangs et cumuls sont interpolés entre deux lignes de ReplayTimeline, lues en accès direct.
+ * Aucun objet n'est alloué pendant onDraw.
+ */
+public class ReplayView extends View {
+
+    private final Paint barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint namePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint valuePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint();
+    private final RectF bar = new RectF();
+    private final char[] digits = new char[12];
+
+    private final float rowMaxHeight;
+    private final float padding;
+    private final float corner;
+
+    private ReplayTimeline timeline;
+    private String[] names;
+    private int[] colors;
+    private float labelWidth;
+    private float valueWidth;
+    private float position;
+
+    public ReplayView(Context context) {
+        this(context, null);
+    }
+
+    public ReplayView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        rowMaxHeight = dp(48);
+        padding = dp(8);
+        corner = dp(6);
+        namePaint.setColor(ContextCompat.getColor(context, R.color.text_main_light));
+        namePaint.setTextSize(sp(14));
+        namePaint.setFakeBoldText(true);
+        valuePaint.setColor(ContextCompat.getColor(context, R.color.text_muted_light));
+        valuePaint.setTextSize(sp(14));
+        valuePaint.setTextAlign(Paint.Align.RIGHT);
+        axisPaint.setColor(ContextCompat.getColor(context, R.color.divider));
+        axisPaint.setStrokeWidth(dp(1));
+    }
+
+    /**
+     * @param names  nom par siège
+     * @param colors couleur par siège
+     */
+    public void setTimeline(ReplayTimeline timeline, String[] names, int[] colors) {
+        this.timeline = timeline;
+        this.names = names;
+        this.colors = colors;
+        // Largeurs de colonnes mesurées une fois pour toute la partie
+        labelWidth = 0;
+        for (String name : names) labelWidth = Math.max(labelWidth, namePaint.measureText(name));
+        valueWidth = Math.max(
+                valuePaint.measureText(String.valueOf(timeline.getMaxCumulative())),
+                valuePaint.measureText(String.valueOf(timeline.getMinCumulative())));
+        position = 0;
+        requestLayout();
+        invalidate();
+    }
+
+    public void setPosition(float step) {
+        if (timeline == null) return;
+        position = Math.max(0, Math.min(step, timeline.getRoundCount()));
+        invalidate();
+    }
+
+    public float getPosition() {
+        return position;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (timeline == null || timeline.getPlayerCount() == 0) return;
+
+        int players = timeline.getPlayerCount();
+        float rowHeight = Math.min(rowMaxHeight, (getHeight() - getPaddingTop() - getPaddingBottom()) / (float) players);
+        float left = getPaddingLeft() + Math.min(labelWidth, getWidth() * 0.35f) + padding;
+        float right = getWidth() - getPaddingRight() - valueWidth - padding;
+        if (right <= left) return;
+
+        int min = timeline.getMinCumulative();
+        int range = Math.max(1, timeline.getMaxCumulative() - min);
+        float scale = (right - left) / range;
+        float zeroX = left - min * scale;
+        canvas.drawLine(zeroX, getPaddingTop(), zeroX, getPaddingTop() + rowHeight * players, axisPaint);
+
+        int from = (int) position;
+        int to = Math.min(from + 1, timeline.getRoundCount());
+        float t = position - from;
+        float textOffset = (namePaint.descent() + namePaint.ascent()) / 2;
+
+        for (int seat = 0; seat < players; seat++) {
+            float rank = lerp(timeline.rank(from, seat), timeline.rank(to, seat), t);
+            float value = lerp(timeline.cumulative(from, seat), timeline.cumulative(to, seat), t);
+            float top = getPaddingTop() + rank * rowHeight;
+            float centerY = top + rowHeight / 2;
+
+            float end = zeroX + value * scale;
+            bar.set(Math.min(zeroX, end), top + rowHeight * 0.2f, Math.max(zeroX, end), top + rowHeight * 0.8f);
+            barPaint.setColor(colors[seat]);
+            canvas.drawRoundRect(bar, corner, corner, barPaint);
+
+            canvas.drawText(names[seat], getPaddingLeft(), centerY - textOffset, namePaint);
+            int chars = formatInt(Math.round(value));
+            canvas.drawText(digits, digits.length - chars, chars,
+                    getWidth() - getPaddingRight(), centerY - textOffset, valuePaint);
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int players = timeline != null ? timeline.getPlayerCount() : 0;
+        int desired = (int) (players * rowMaxHeight) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(desired, heightMeasureSpec));
+    }
+
+    /**
+     * Écrit n à droite du tampon digits (drawText sans String temporaire).
+     * @return le nombre de caractères écrits
+     */
+    private int formatInt(int n) {
+        int i = digits.length;
+        long v = Math.abs((long) n);
+        do {
+            digits[--i] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        if (n < 0) digits[--i] = '-';
+        return digits.length - i;
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    private float dp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics());
+    }
+
+    private float sp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, value, getResources().getDisplayMetrics());
+    }
+}
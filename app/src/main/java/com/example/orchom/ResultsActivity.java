@@ -12,30 +12,28 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.lifecycle.ViewModelProvider;
 import com.example.orchom.databinding.ContentResultsBinding;
 import com.example.orchom.databinding.ScoreItemLayoutBinding;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public class ResultsActivity extends BaseActivity {
 
+    private static final String STATE_IMAGE_PATH = "saved_image_path";
+
     private ContentResultsBinding binding;
     private List<Player> players;
     private String savedImagePath = null;
+    private PhotoImportViewModel photoImport;
 
     private final ActivityResultLauncher<String> galleryLauncher = registerForActivityResult(
         new ActivityResultContracts.GetContent(),
         uri -> {
             if (uri != null) {
-                savedImagePath = saveImageLocally(uri);
-                if (savedImagePath != null) {
-                    updateImagePreview();
-                    saveResults();
-                }
+                importImage(uri);
             }
         }
     );
@@ -44,6 +42,10 @@ public class ResultsActivity extends BaseActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         binding = ContentResultsBinding.inflate(getLayoutInflater(), baseBinding.container, true);
+        photoImport = new ViewModelProvider(this).get(PhotoImportViewModel.class);
+        if (savedInstanceState != null) {
+            savedImagePath = savedInstanceState.getString(STATE_IMAGE_PATH);
+        }
 
         players = GameManager.getInstance().getPlayers();
         if (players != null) {
@@ -53,7 +55,15 @@ public class ResultsActivity extends BaseActivity {
         }
 
         setupListeners();
+        updateImagePreview(null);
         saveResults();
+        photoImport.getState().observe(this, this::onPhotoImportState);
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_IMAGE_PATH, savedImagePath);
     }
 
     @Override
@@ -102,38 +112,53 @@ public class ResultsActivity extends BaseActivity {
                 itemBinding.scoreIndicator.setBackgroundColor(Color.parseColor("#E11D48"));
             }
         }
+
+        // Courbes dans l'ordre des sièges (la liste locale est triée par score)
+        GameConfig config = GameManager.getInstance().getCurrentConfig();
+        binding.scoreChart.update(GameManager.getInstance().getPlayers(), config != null ? config.targetScore : 500);
     }
 
     private void saveResults() {
         GameManager.getInstance().saveToHistory(this, savedImagePath);
     }
 
-    private void updateImagePreview() {
+    private void updateImagePreview(android.graphics.Bitmap preview) {
         if (savedImagePath != null) {
-            binding.resultImagePreview.setImageURI(Uri.fromFile(new File(savedImagePath)));
+            if (preview != null) {
+                binding.resultImagePreview.setImageBitmap(preview);
+            } else {
+                binding.resultImagePreview.setImageURI(Uri.fromFile(new File(savedImagePath)));
+            }
             binding.resultImagePreview.setVisibility(View.VISIBLE);
             binding.uploadImageButton.setText("📷 CHANGER LA PHOTO");
         }
     }
 
-    private String saveImageLocally(Uri uri) {
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            File outputDir = getExternalFilesDir(android.os.Environment.DIRECTORY_PICTURES);
-            File outputFile = new File(outputDir, "orchom_" + System.currentTimeMillis() + ".jpg");
-            FileOutputStream outputStream = new FileOutputStream(outputFile);
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-            }
-            outputStream.close();
-            inputStream.close();
-            return outputFile.getAbsolutePath();
-        } catch (Exception e) {
-            return null;
+    /**
+     * Import de la photo en arrière-plan (réduction + ré-encodage), avec progression sur le bouton.
+     * L'import appartient au ViewModel : il se poursuit si l'écran est recréé.
+     */
+    private void importImage(Uri uri) {
+        photoImport.importPhoto(uri);
+    }
+
+    private void onPhotoImportState(PhotoImportViewModel.State state) {
+        if (state == null || binding == null) return;
+        if (state.isRunning()) {
+            binding.uploadImageButton.setEnabled(false);
+            binding.uploadImageButton.setText("IMPORT… " + state.percent + "%");
+            return;
+        }
+        binding.uploadImageButton.setEnabled(true);
+        if (state.failed) {
+            binding.uploadImageButton.setText(savedImagePath != null ? "📷 CHANGER LA PHOTO" : "AJOUTER UNE PHOTO");
+            Toast.makeText(this, "Impossible d'importer la photo", Toast.LENGTH_SHORT).show();
+        } else {
+            savedImagePath = state.path;
+            updateImagePreview(state.preview);
+            saveResults();
         }
+        photoImport.consumeResult();
     }
 
     private void showDeleteDialog() {
@@ -142,6 +167,7 @@ public class ResultsActivity extends BaseActivity {
             .setMessage("Supprimer cette partie de l'historique ?")
             .setPositiveButton("Supprimer", (dialog, which) -> {
                 GameManager.getInstance().deleteLastHistoryEntry(this);
+                GameManager.getInstance().clearCurrentGame(this);
                 startActivity(new Intent(this, HomeActivity.class));
                 finish();
             })
@@ -0,0 +1,201 @@
+package com.example.orchom;
+
+import android.content.Context;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Journal append-only des manches validées et de leurs corrections.
+ * Chaque manche est une ligne "seq;manche;starter;s1,s2,..." ajoutée en fin de fichier,
+ * le snapshot complet (SnapshotStore, même dossier) mémorise le dernier seq qu'il couvre.
+ * Corrections (deltas d'une ligne, pas de réécriture) :
+ * "seq;E;indexManche;s1,s2,..." remplace les scores d'une manche passée,
+ * "seq;U;manche;starter" retire la dernière manche et rétablit manche et starter.
+ */
+public class RoundJournal {
+
+    private static final String FILE_NAME = "round_journal.log";
+
+    private final File file;
+
+    public RoundJournal(Context context) {
+        this(context.getFilesDir());
+    }
+
+    /**
+     * Journal d'une table, dans son propre dossier.
+     */
+    public RoundJournal(File dir) {
+        this.file = new File(dir, FILE_NAME);
+    }
+
+    public static class Record {
+        public static final int KIND_ROUND = 0;
+        public static final int KIND_EDIT = 1;
+        public static final int KIND_UNDO = 2;
+
+        public final int kind;
+        public final int seq;
+        public final int round;
+        public final int starterIndex;
+        public final int[] scores;
+
+        public Record(int seq, int round, int starterIndex, int[] scores) {
+            this(KIND_ROUND, seq, round, starterIndex, scores);
+        }
+
+        private Record(int kind, int seq, int round, int starterIndex, int[] scores) {
+            this.kind = kind;
+            this.seq = seq;
+            this.round = round;
+            this.starterIndex = starterIndex;
+            this.scores = scores;
+        }
+
+        /**
+         * Correction de la manche d'index roundIndex (0 = première) : nouveaux scores.
+         */
+        public static Record edit(int seq, int roundIndex, int[] scores) {
+            return new Record(KIND_EDIT, seq, roundIndex, -1, scores);
+        }
+
+        /**
+         * Annulation de la dernière manche ; round et starterIndex sont ceux rétablis.
+         */
+        public static Record undo(int seq, int round, int starterIndex) {
+            return new Record(KIND_UNDO, seq, round, starterIndex, new int[0]);
+        }
+
+        String encode() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(seq).append(';');
+            if (kind == KIND_UNDO) {
+                return sb.append("U;").append(round).append(';').append(starterIndex).append('\n').toString();
+            }
+            if (kind == KIND_EDIT) {
+                sb.append("E;").append(round).append(';');
+            } else {
+                sb.append(round).append(';').append(starterIndex).append(';');
+            }
+            for (int i = 0; i < scores.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(scores[i]);
+            }
+            return sb.append('\n').toString();
+        }
+
+        static Record decode(String line) {
+            String[] parts = line.split(";");
+            if (parts.length != 4) return null;
+            try {
+                int seq = Integer.parseInt(parts[0]);
+                if ("U".equals(parts[1])) {
+                    return undo(seq, Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                }
+                String[] values = parts[3].split(",");
+                int[] scores = new int[values.length];
+                for (int i = 0; i < values.length; i++) scores[i] = Integer.parseInt(values[i]);
+                if ("E".equals(parts[1])) {
+                    return edit(seq, Integer.parseInt(parts[2]), scores);
+                }
+                return new Record(seq, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), scores);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    public void append(Record record) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(record.encode().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Retourne les enregistrements dont le seq est strictement supérieur à afterSeq.
+     * Seules les lignes terminées par '\n' comptent : une fin de fichier sans saut de ligne
+     * (écriture interrompue, par exemple "…;120,4" au lieu de "…;120,45") est ignorée,
+     * puis retirée du fichier pour que l'ajout suivant commence sur une ligne propre.
+     *
+     * Une ligne illisible suivie d'autres lignes (corruption au milieu du journal) arrête
+     * aussi la lecture : les enregistrements suivants dépendent de celui qui est perdu et ne
+     * peuvent pas être rejoués. La partie repart du snapshot et des enregistrements lisibles
+     * qui précèdent ; la suite est signalée puis retirée du fichier, sans quoi les manches
+     * ajoutées ensuite seraient elles aussi perdues à chaque restauration.
+     */
+    public List<Record> readAfter(int afterSeq) {
+        List<Record> records = new ArrayList<>();
+        if (!file.exists()) return records;
+        byte[] data;
+        try {
+            data = readBytes();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return records;
+        }
+        int start = 0;
+        for (int end = 0; end < data.length; end++) {
+            if (data[end] != '\n') continue;
+            Record r = Record.decode(new String(data, start, end - start, StandardCharsets.UTF_8));
+            if (r == null) {
+                if (end + 1 < data.length) {
+                    new IOException("Round journal corrupt at byte " + start + ": "
+                            + (data.length - start) + " bytes dropped").printStackTrace();
+                }
+                break;
+            }
+            if (r.seq > afterSeq) records.add(r);
+            start = end + 1;
+        }
+        if (start < data.length) truncate(start);
+        return records;
+    }
+
+    private byte[] readBytes() throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int n = in.read(data, offset, data.length - offset);
+                if (n < 0) break;
+                offset += n;
+            }
+            return offset == data.length ? data : Arrays.copyOf(data, offset);
+        } finally {
+            in.close();
+        }
+    }
+
+    private void truncate(long length) {
+        try {
+            FileOutputStream out = new FileOutputStream(file, true);
+            try {
+                out.getChannel().truncate(length);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void clear() {
+        if (file.exists() && !file.delete()) {
+            try {
+                new FileOutputStream(file, false).close(); // Tronquer si la suppression échoue
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
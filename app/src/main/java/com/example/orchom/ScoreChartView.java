@@ -0,0 +1,218 @@
+package com.example.orchom;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.DashPathEffect;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import androidx.core.content.ContextCompat;
+import java.util.List;
+
+/**
+ * Courbe des scores cumulés par manche, une ligne par joueur, avec le seuil de l'objectif.
+ *
+ * Les tracés sont gardés en coordonnées écran : une nouvelle manche ajoute un lineTo par joueur.
+ * Les axes ont de la marge (capacité en manches doublée, échelle des scores élargie de 25 %),
+ * donc un recalcul complet n'a lieu qu'au dépassement, à une correction ou annulation,
+ * ou au redimensionnement. onDraw ne fait aucune allocation.
+ */
+public class ScoreChartView extends View {
+
+    private static final int MIN_ROUND_CAPACITY = 8;
+    private static final float HEADROOM = 1.25f;
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint targetPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint();
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final float dotRadius;
+    private final float labelPadding;
+
+    private List<Player> players;
+    private Player firstPlayer; // Identité de la partie tracée (changement de table)
+    private Path[] paths = new Path[0];
+    private int[] colors = new int[0];
+    private int[] totals = new int[0];   // Dernier point tracé de chaque joueur
+    private int drawnRounds;
+    private int roundCapacity;
+    private int minValue;
+    private int maxValue;
+    private int targetScore;
+    private String targetLabel = "";
+
+    // Zone de tracé, recalculée dans onSizeChanged
+    private float left, top, right, bottom;
+
+    public ScoreChartView(Context context) {
+        this(context, null);
+    }
+
+    public ScoreChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        dotRadius = 3.5f * density;
+        labelPadding = 4 * density;
+
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(2.5f * density);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+
+        targetPaint.setStyle(Paint.Style.STROKE);
+        targetPaint.setStrokeWidth(1.5f * density);
+        targetPaint.setColor(ContextCompat.getColor(context, R.color.danger));
+        targetPaint.setPathEffect(new DashPathEffect(new float[]{6 * density, 4 * density}, 0));
+
+        axisPaint.setColor(ContextCompat.getColor(context, R.color.divider));
+        axisPaint.setStrokeWidth(density);
+
+        labelPaint.setColor(ContextCompat.getColor(context, R.color.danger));
+        labelPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 10, getResources().getDisplayMetrics()));
+        labelPaint.setFakeBoldText(true);
+        labelPaint.setTextAlign(Paint.Align.RIGHT);
+    }
+
+    /**
+     * Met le graphique à jour avec la partie (joueurs dans l'ordre des sièges).
+     * Une manche de plus que le tracé courant est ajoutée sans recalcul.
+     */
+    public void update(List<Player> players, int targetScore) {
+        this.players = players;
+        if (players == null || players.isEmpty()) {
+            drawnRounds = 0;
+            paths = new Path[0];
+            invalidate();
+            return;
+        }
+        int rounds = players.get(0).getRoundCount();
+        if (players.size() != paths.length || players.get(0) != firstPlayer || targetScore != this.targetScore) {
+            setPlayers(players, targetScore);
+            rebuild();
+        } else if (rounds == drawnRounds + 1 && fits(rounds)) {
+            appendRound(rounds);
+        } else if (rounds != drawnRounds || !totalsUnchanged()) {
+            rebuild();
+        }
+        invalidate();
+    }
+
+    private void setPlayers(List<Player> players, int targetScore) {
+        int n = players.size();
+        paths = new Path[n];
+        colors = new int[n];
+        totals = new int[n];
+        for (int i = 0; i < n; i++) {
+            paths[i] = new Path();
+            colors[i] = ColorManager.parseColor(players.get(i).getColor(), ColorManager.getPlayerColor(getContext(), i));
+        }
+        this.targetScore = targetScore;
+        firstPlayer = players.get(0);
+        targetLabel = targetScore + " pts";
+    }
+
+    private boolean fits(int rounds) {
+        if (rounds > roundCapacity) return false;
+        for (int i = 0; i < paths.length; i++) {
+            int score = players.get(i).getScore();
+            if (score < minValue || score > maxValue) return false;
+        }
+        return true;
+    }
+
+    private boolean totalsUnchanged() {
+        for (int i = 0; i < paths.length; i++) {
+            if (players.get(i).getScore() != totals[i]) return false;
+        }
+        return true;
+    }
+
+    private void appendRound(int rounds) {
+        float x = x(rounds);
+        for (int i = 0; i < paths.length; i++) {
+            totals[i] = players.get(i).getScore();
+            paths[i].lineTo(x, y(totals[i]));
+        }
+        drawnRounds = rounds;
+    }
+
+    /**
+     * Recalcul complet : nouvelles bornes des axes (avec marge), puis tous les tracés.
+     */
+    private void rebuild() {
+        int rounds = players.get(0).getRoundCount();
+        roundCapacity = MIN_ROUND_CAPACITY;
+        while (roundCapacity < rounds) roundCapacity *= 2;
+
+        int min = 0, max = Math.max(targetScore, 1);
+        for (Player p : players) {
+            ScoreBuffer buffer = p.getRoundScoreBuffer();
+            int[] scores = buffer.array();
+            int sum = 0;
+            for (int r = 0; r < buffer.size(); r++) {
+                sum += scores[r];
+                if (sum < min) min = sum;
+                if (sum > max) max = sum;
+            }
+        }
+        maxValue = (int) Math.ceil(max * HEADROOM);
+        minValue = (int) Math.floor(min * HEADROOM);
+
+        drawnRounds = rounds;
+        if (right <= left) return; // Pas encore mesuré : onSizeChanged refera le tracé
+        for (int i = 0; i < paths.length; i++) {
+            Path path = paths[i];
+            path.rewind();
+            path.moveTo(x(0), y(0));
+            ScoreBuffer buffer = players.get(i).getRoundScoreBuffer();
+            int[] scores = buffer.array();
+            int sum = 0;
+            for (int r = 0; r < buffer.size(); r++) {
+                sum += scores[r];
+                path.lineTo(x(r + 1), y(sum));
+            }
+            totals[i] = sum;
+        }
+    }
+
+    private float x(int round) {
+        return left + (right - left) * round / roundCapacity;
+    }
+
+    private float y(int value) {
+        return bottom - (bottom - top) * (value - minValue) / (float) (maxValue - minValue);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        left = getPaddingLeft() + dotRadius;
+        top = getPaddingTop() + dotRadius;
+        right = w - getPaddingRight() - dotRadius;
+        bottom = h - getPaddingBottom() - dotRadius;
+        if (players != null && !players.isEmpty()) rebuild();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (paths.length == 0 || right <= left) return;
+
+        float zeroY = y(0);
+        canvas.drawLine(left, zeroY, right, zeroY, axisPaint);
+        float targetY = y(targetScore);
+        canvas.drawLine(left, targetY, right, targetY, targetPaint);
+        canvas.drawText(targetLabel, right, targetY - labelPadding, labelPaint);
+
+        float lastX = x(drawnRounds);
+        for (int i = 0; i < paths.length; i++) {
+            linePaint.setColor(colors[i]);
+            canvas.drawPath(paths[i], linePaint);
+            dotPaint.setColor(colors[i]);
+            canvas.drawCircle(lastX, y(totals[i]), dotRadius, dotPaint);
+        }
+    }
+}
@@ -43,7 +43,14 @@ public class SetupActivity extends BaseActivity {
             if (validateInputs()) {
                 GameConfig config = createGameConfig();
                 saveSettings(config);
-                startGameActivity(config);
+                binding.startGameButton.setEnabled(false);
+                final android.content.Context appContext = getApplicationContext();
+                // Noms saisis -> identifiants stables du registre (créés au besoin)
+                background.update("players",
+                        () -> GameManager.getInstance().getPlayerRegistry(appContext).resolveAll(config.playerNames),
+                        ids -> {
+                            if (binding != null) startGameActivity(config.withPlayerIds(ids));
+                        });
             }
         });
     }
@@ -0,0 +1,71 @@
+package com.example.orchom;
+
+import android.content.Context;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Fichier binaire du snapshot de la partie en cours (format GameCodec).
+ * L'écriture passe par un fichier temporaire synchronisé puis renommé :
+ * un snapshot lu est toujours complet.
+ */
+public class SnapshotStore {
+
+    private static final String FILE_NAME = "game_snapshot.bin";
+
+    private final File file;
+
+    public SnapshotStore(Context context) {
+        this(context.getFilesDir());
+    }
+
+    /**
+     * Snapshot d'une table, dans son propre dossier (créé à la première écriture).
+     */
+    public SnapshotStore(File dir) {
+        this.file = new File(dir, FILE_NAME);
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    public void write(byte[] data) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) throw new IOException("Impossible de créer " + dir);
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(data);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Impossible de remplacer " + file);
+        }
+    }
+
+    public byte[] read() throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int n = in.read(data, offset, data.length - offset);
+                if (n < 0) throw new IOException("Snapshot tronqué");
+                offset += n;
+            }
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    public void delete() {
+        file.delete();
+    }
+}
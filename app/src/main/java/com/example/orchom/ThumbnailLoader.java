@@ -0,0 +1,205 @@
+package com.example.orchom;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.View;
+import android.widget.ImageView;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Chargement asynchrone des miniatures de l'historique :
+ * cache mémoire LRU, miniatures pré-réduites sur disque et décodage sur un pool borné.
+ * Le cache disque est plafonné : les miniatures les moins récemment lues sont supprimées
+ * au-delà de DISK_MAX_BYTES (photos supprimées de l'historique, miniatures périmées…).
+ * load() et cancel() s'appellent depuis le thread principal.
+ */
+public class ThumbnailLoader {
+
+    private static final int THUMB_SIZE = 300;
+    private static final int THUMB_QUALITY = 80;
+    private static final String DISK_DIR = "thumbs";
+    private static final long DISK_MAX_BYTES = 20L * 1024 * 1024;
+
+    private static ThumbnailLoader instance;
+
+    private final File diskDir;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<ImageView, Future<?>> pending = new WeakHashMap<>();
+
+    public static synchronized ThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ThumbnailLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ThumbnailLoader(Context context) {
+        diskDir = new File(context.getCacheDir(), DISK_DIR);
+        int cacheSizeKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8); // 1/8 du heap
+        memoryCache = new LruCache<String, Bitmap>(cacheSizeKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+        executor.execute(this::trimDiskCache); // Rattrape ce qui a été écrit lors des lancements précédents
+    }
+
+    /**
+     * Affiche la miniature de path dans view. La vue reste masquée
+     * si le fichier n'existe pas ou ne peut pas être décodé.
+     */
+    public void load(final ImageView view, final String path) {
+        cancel(view);
+        view.setTag(path);
+        if (path == null) {
+            view.setImageDrawable(null);
+            view.setVisibility(View.GONE);
+            return;
+        }
+
+        Bitmap cached = memoryCache.get(path);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            view.setVisibility(View.VISIBLE);
+            return;
+        }
+
+        view.setImageDrawable(null);
+        view.setVisibility(View.GONE);
+        pending.put(view, executor.submit(() -> {
+            final Bitmap bitmap = loadThumbnail(path);
+            if (Thread.currentThread().isInterrupted()) return;
+            mainHandler.post(() -> {
+                if (!path.equals(view.getTag())) return; // Vue recyclée entre-temps
+                pending.remove(view);
+                if (bitmap != null) {
+                    view.setImageBitmap(bitmap);
+                    view.setVisibility(View.VISIBLE);
+                }
+            });
+        }));
+    }
+
+    /**
+     * Annule le chargement en cours pour cette vue (ViewHolder recyclé).
+     */
+    public void cancel(ImageView view) {
+        Future<?> task = pending.remove(view);
+        if (task != null) task.cancel(true);
+        view.setTag(null);
+    }
+
+    private Bitmap loadThumbnail(String path) {
+        File source = new File(path);
+        if (!source.exists()) return null;
+
+        File thumbFile = new File(diskDir, diskKey(path, source.lastModified()) + ".jpg");
+        Bitmap bitmap = null;
+        if (thumbFile.exists()) {
+            bitmap = BitmapFactory.decodeFile(thumbFile.getAbsolutePath());
+            if (bitmap != null) thumbFile.setLastModified(System.currentTimeMillis()); // Ordre LRU du cache disque
+        }
+        if (bitmap == null) {
+            bitmap = decodeSampledBitmapFromFile(path, THUMB_SIZE, THUMB_SIZE);
+            if (bitmap == null) return null;
+            if (writeThumbnail(thumbFile, bitmap)) trimDiskCache();
+        }
+        memoryCache.put(path, bitmap);
+        return bitmap;
+    }
+
+    private boolean writeThumbnail(File thumbFile, Bitmap bitmap) {
+        if (!diskDir.exists() && !diskDir.mkdirs()) return false;
+        try {
+            FileOutputStream out = new FileOutputStream(thumbFile);
+            try {
+                bitmap.compress(Bitmap.CompressFormat.JPEG, THUMB_QUALITY, out);
+            } finally {
+                out.close();
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            thumbFile.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Supprime les miniatures les plus anciennement lues tant que le dossier dépasse DISK_MAX_BYTES.
+     * Appelé sur le pool, après chaque écriture ; deux appels simultanés ne font que supprimer
+     * deux fois le même fichier.
+     */
+    private void trimDiskCache() {
+        File[] files = diskDir.listFiles();
+        if (files == null) return;
+        long total = 0;
+        long[] lastModified = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            total += files[i].length();
+            lastModified[i] = files[i].lastModified();
+        }
+        if (total <= DISK_MAX_BYTES) return;
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(lastModified[a], lastModified[b]));
+        for (int i = 0; i < order.length && total > DISK_MAX_BYTES; i++) {
+            File file = files[order[i]];
+            long length = file.length();
+            if (file.delete()) total -= length;
+        }
+    }
+
+    private static String diskKey(String path, long lastModified) {
+        String raw = path + "@" + lastModified;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(raw.getBytes());
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(raw.hashCode());
+        }
+    }
+
+    static Bitmap decodeSampledBitmapFromFile(String path, int reqWidth, int reqHeight) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(path, options);
+    }
+
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+
+        if (height > reqHeight || width > reqWidth) {
+            final int halfHeight = height / 2;
+            final int halfWidth = width / 2;
+            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
+                inSampleSize *= 2;
+            }
+        }
+        return inSampleSize;
+    }
+}
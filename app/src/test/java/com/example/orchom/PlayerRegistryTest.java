@@ -0,0 +1,123 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fusion de deux joueurs du registre : parties, statistiques et index de recherche.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PlayerRegistryTest {
+
+    @Test
+    public void merge_movesGamesStatsAndSearchTokens() throws Exception {
+        HistoryDatabase db = HistoryDatabase.getInstance(RuntimeEnvironment.getApplication());
+        PlayerRegistry registry = new PlayerRegistry(db);
+        // Bob gagne la première partie, Robert perd la seconde : la même personne sous deux noms
+        db.insertGame(game("Vendredi", player("Bob", 10, 10), player("Alice", 60, 60)));
+        db.insertGame(game("Samedi", player("Robert", 100, 10), player("Alice", 30)));
+        long[] ids = registry.resolveAll(new String[]{"Bob", "Robert"});
+        long bob = ids[0], robert = ids[1];
+
+        assertTrue(registry.merge(bob, robert));
+
+        // Parties et vainqueurs réattribués
+        assertEquals(2, db.getGameCount(HistoryQuery.ALL.withParticipant(robert)));
+        assertEquals(0, db.getGameCount(HistoryQuery.ALL.withParticipant(bob)));
+        assertEquals(1, db.getGameCount(HistoryQuery.ALL.withWonBy(robert)));
+        // L'ancien nom est un alias du joueur conservé
+        assertEquals(robert, registry.resolveAll(new String[]{"bob"})[0]);
+        for (PlayerRegistry.Entry e : registry.list()) assertNotEquals(bob, e.id);
+
+        // Statistiques recalculées sur les deux parties
+        PlayerStats stats = null;
+        for (PlayerStats s : db.queryPlayerStats()) {
+            assertNotEquals(bob, s.playerId);
+            if (s.playerId == robert) stats = s;
+        }
+        assertNotNull(stats);
+        assertEquals(2, stats.games);
+        assertEquals(1, stats.wins);
+        assertEquals(1, stats.losses);
+        assertEquals(4, stats.roundCount);
+        assertEquals(10, stats.bestRound);
+        assertEquals(100, stats.worstRound);
+
+        // Recherche : le nom conservé trouve les deux parties, le nom saisi reste indexé
+        assertEquals(2, db.getGameCount(HistoryQuery.ALL.withSearch("robert")));
+        assertEquals(1, db.getGameCount(HistoryQuery.ALL.withSearch("bob")));
+    }
+
+    @Test
+    public void merge_refusesPlayersWhoSharedAGame() throws Exception {
+        HistoryDatabase db = HistoryDatabase.getInstance(RuntimeEnvironment.getApplication());
+        PlayerRegistry registry = new PlayerRegistry(db);
+        db.insertGame(game("Dimanche", player("Chloé", 20, 30), player("Denis", 100, 5)));
+        long[] ids = registry.resolveAll(new String[]{"Chloé", "Denis"});
+        long chloe = ids[0], denis = ids[1];
+
+        assertFalse(registry.merge(chloe, denis));
+
+        // Rien n'a bougé : chacun garde sa partie et ses statistiques
+        assertEquals(1, db.getGameCount(HistoryQuery.ALL.withParticipant(chloe)));
+        assertEquals(1, db.getGameCount(HistoryQuery.ALL.withParticipant(denis)));
+        assertEquals(chloe, registry.resolveAll(new String[]{"chloé"})[0]);
+        for (PlayerStats s : db.queryPlayerStats()) {
+            if (s.playerId == chloe || s.playerId == denis) assertEquals(1, s.games);
+        }
+    }
+
+    @Test
+    public void rename_refusesAnotherPlayersName() throws Exception {
+        HistoryDatabase db = HistoryDatabase.getInstance(RuntimeEnvironment.getApplication());
+        PlayerRegistry registry = new PlayerRegistry(db);
+        long[] ids = registry.resolveAll(new String[]{"Emma", "Fanny"});
+        long emma = ids[0], fanny = ids[1];
+
+        assertFalse(registry.rename(emma, "fanny"));
+        assertTrue(registry.rename(emma, "Emmanuelle"));
+
+        // Le nom refusé reste à Fanny ; l'ancien et le nouveau nom mènent à Emma
+        assertEquals(fanny, registry.resolveAll(new String[]{"Fanny"})[0]);
+        assertEquals(emma, registry.resolveAll(new String[]{"emma"})[0]);
+        assertEquals(emma, registry.resolveAll(new String[]{"emmanuelle"})[0]);
+        for (PlayerRegistry.Entry e : registry.list()) {
+            if (e.id == emma) assertEquals("Emmanuelle", e.displayName);
+        }
+    }
+
+    private static JSONObject game(String name, JSONObject... players) throws Exception {
+        JSONArray list = new JSONArray();
+        for (JSONObject p : players) list.put(p);
+        JSONObject config = new JSONObject();
+        config.put("targetScore", 100);
+        JSONObject entry = new JSONObject();
+        entry.put("game_name", name);
+        entry.put("date", System.currentTimeMillis());
+        entry.put("players", list);
+        entry.put("config", config);
+        return entry;
+    }
+
+    private static JSONObject player(String name, int... rounds) throws Exception {
+        JSONArray scores = new JSONArray();
+        int total = 0;
+        for (int r : rounds) {
+            scores.put(r);
+            total += r;
+        }
+        JSONObject p = new JSONObject();
+        p.put("name", name);
+        p.put("score", total);
+        p.put("roundScores", scores);
+        return p;
+    }
+}
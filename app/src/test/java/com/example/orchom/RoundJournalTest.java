@@ -0,0 +1,89 @@
+package com.example.orchom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Journal des manches : seules les lignes complètes sont relues après une écriture interrompue,
+ * et rien n'est relu après une ligne corrompue.
+ */
+public class RoundJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readAfter_ignoresTornTail() throws Exception {
+        File dir = folder.getRoot();
+        RoundJournal journal = new RoundJournal(dir);
+        journal.append(new RoundJournal.Record(1, 2, 1, new int[]{10, 20}));
+        appendRaw(dir, "2;3;0;120,4"); // "2;3;0;120,45\n" coupé en pleine écriture
+
+        List<RoundJournal.Record> records = journal.readAfter(0);
+
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).seq);
+        // La fin tronquée est retirée : l'ajout suivant est relu normalement
+        journal.append(new RoundJournal.Record(2, 3, 0, new int[]{120, 45}));
+        records = journal.readAfter(0);
+        assertEquals(2, records.size());
+        assertArrayEquals(new int[]{120, 45}, records.get(1).scores);
+    }
+
+    @Test
+    public void readAfter_dropsEverythingAfterCorruptMiddleLine() throws Exception {
+        File dir = folder.getRoot();
+        RoundJournal journal = new RoundJournal(dir);
+        journal.append(new RoundJournal.Record(1, 2, 1, new int[]{10, 20}));
+        // Écriture interrompue puis ajout suivant collé à la ligne coupée, et un autre après
+        appendRaw(dir, "2;3;0;120,4");
+        journal.append(new RoundJournal.Record(3, 4, 1, new int[]{5, 5}));
+        journal.append(new RoundJournal.Record(4, 5, 0, new int[]{1, 2}));
+
+        List<RoundJournal.Record> records = journal.readAfter(0);
+
+        // Seq 2 est perdu : 3 et 4 ne peuvent pas être rejoués sans lui
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).seq);
+        // Le journal reprend après le dernier enregistrement lisible
+        journal.append(new RoundJournal.Record(2, 3, 0, new int[]{7, 8}));
+        records = journal.readAfter(0);
+        assertEquals(2, records.size());
+        assertArrayEquals(new int[]{7, 8}, records.get(1).scores);
+    }
+
+    @Test
+    public void restore_doesNotReplayTornRound() throws Exception {
+        File dir = folder.getRoot();
+        GameConfig config = new GameConfig("Test", 2, 500, new String[]{"A", "B"}, GameEngine.MODE_MANUAL, 0, 50, 10, 20, 100);
+        GameTable table = GameTable.create(dir, GameEngine.newGame("g1", config, new Random(1)));
+        assertTrue(table.writeSnapshot(table.takeSnapshot()));
+        table.appendJournal(table.applyRound(new int[]{10, 20}));
+        appendRaw(dir, "2;3;0;120,4");
+
+        GameTable restored = GameTable.restore(dir, 0, new Random(1));
+
+        assertNotNull(restored);
+        assertEquals(1, restored.game.getPlayers().get(0).getRoundCount());
+        assertEquals(10, restored.game.getPlayers().get(0).getScore());
+        assertEquals(20, restored.game.getPlayers().get(1).getScore());
+    }
+
+    private static void appendRaw(File dir, String text) throws Exception {
+        FileOutputStream out = new FileOutputStream(new File(dir, "round_journal.log"), true);
+        try {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+// Logique de jeu et format binaire en Java pur : testable et mesurable (JMH) sans Android.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    // org.json est fourni par Android à l'exécution
+    compileOnly(libs.json)
+
+    testImplementation(libs.junit)
+    testImplementation(libs.json)
+    jmh(libs.json)
+}
+
+// ./gradlew :core:jmh
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    jvmArgs.set(listOf("-Xmx2g"))
+}
@@ -0,0 +1,39 @@
+package com.example.orchom.bench;
+
+import com.example.orchom.GameConfig;
+import com.example.orchom.GameEngine;
+
+import java.util.Random;
+
+/**
+ * Parties générées de façon déterministe pour les benchmarks.
+ */
+final class BenchData {
+
+    private BenchData() {}
+
+    static GameConfig config(int players) {
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) names[i] = "Joueur " + (i + 1);
+        return new GameConfig("Soirée du vendredi", players, 100000, names, GameEngine.MODE_ROTATION, 0, 50, 10, 20, 100);
+    }
+
+    static int[][] rounds(int players, int count, long seed) {
+        Random random = new Random(seed);
+        int[][] rounds = new int[count][players];
+        for (int r = 0; r < count; r++) {
+            for (int i = 0; i < players; i++) {
+                rounds[r][i] = random.nextInt(5) == 0 ? -10 * (1 + random.nextInt(10)) : random.nextInt(120);
+            }
+        }
+        return rounds;
+    }
+
+    static GameEngine game(int players, int roundCount, long seed) {
+        GameEngine game = GameEngine.newGame("bench-" + seed, config(players), new Random(seed));
+        for (int[] scores : rounds(players, roundCount, seed)) {
+            game.applyRound(scores);
+        }
+        return game;
+    }
+}
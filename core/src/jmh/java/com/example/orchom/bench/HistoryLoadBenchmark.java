@@ -0,0 +1,105 @@
+package com.example.orchom.bench;
+
+import com.example.orchom.GameCodec;
+import com.example.orchom.GameConfig;
+import com.example.orchom.GameSnapshot;
+import com.example.orchom.Player;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chargement de l'historique complet : entrées binaires lues en flux (résumé seulement)
+ * contre l'ancien tableau JSON reparsé en entier.
+ * SQLite n'existe pas sur la JVM : on mesure ici le coût de désérialisation seul.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HistoryLoadBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int games;
+
+    private byte[][] binaryEntries;
+    private String jsonHistory;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Quelques parties types réutilisées : la taille des données compte, pas leur variété
+        byte[][] templates = new byte[8][];
+        JSONObject[] jsonTemplates = new JSONObject[8];
+        for (int t = 0; t < templates.length; t++) {
+            GameSnapshot snapshot = BenchData.game(3 + t % 4, 10 + 5 * t, t).snapshot(0);
+            templates[t] = GameCodec.encodeHistoryEntry(snapshot, 1700000000000L + t, null);
+            jsonTemplates[t] = legacyEntry(snapshot, 1700000000000L + t);
+        }
+
+        binaryEntries = new byte[games][];
+        JSONArray history = new JSONArray();
+        for (int i = 0; i < games; i++) {
+            binaryEntries[i] = templates[i % templates.length];
+            history.put(jsonTemplates[i % jsonTemplates.length]);
+        }
+        jsonHistory = history.toString();
+    }
+
+    private static JSONObject legacyEntry(GameSnapshot s, long date) throws Exception {
+        Player winner = s.getWinner();
+        JSONArray players = new JSONArray();
+        for (Player p : s.players) players.put(p.toJSON());
+        JSONObject entry = new JSONObject();
+        entry.put("winner", winner.getName());
+        entry.put("winner_score", winner.getScore());
+        entry.put("date", date);
+        entry.put("game_name", s.config.gameName);
+        entry.put("players", players);
+        entry.put("config", s.config.toJSON());
+        return entry;
+    }
+
+    @Benchmark
+    public long binaryStream() throws IOException {
+        SummaryVisitor visitor = new SummaryVisitor();
+        for (byte[] entry : binaryEntries) {
+            GameCodec.read(entry, visitor);
+        }
+        return visitor.checksum;
+    }
+
+    @Benchmark
+    public long legacyJson() throws Exception {
+        JSONArray history = new JSONArray(jsonHistory);
+        long checksum = 0;
+        for (int i = 0; i < history.length(); i++) {
+            JSONObject entry = history.getJSONObject(i);
+            checksum += entry.getInt("winner_score") + entry.getLong("date")
+                    + entry.getJSONArray("players").length();
+        }
+        return checksum;
+    }
+
+    /** Ne garde que ce qu'affiche une ligne d'historique ; les manches sont ignorées. */
+    private static final class SummaryVisitor implements GameCodec.Visitor {
+        long checksum;
+
+        @Override public void onHeader(int type, String gameId) {}
+        @Override public void onConfig(GameConfig config) { checksum += config.playerCount; }
+        @Override public void onPlayer(int index, String name, int id, long playerId, String color, int score, int roundCount) {
+            checksum += score;
+        }
+        @Override public void onRoundScore(int playerIndex, int round, int score) {}
+        @Override public void onGameState(int round, int starterIndex, int journalSeq) {}
+        @Override public void onHistoryInfo(long date, String imagePath) { checksum += date; }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.orchom.bench;
+
+import com.example.orchom.GameCodec;
+import com.example.orchom.GameEngine;
+import com.example.orchom.GameSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reprise d'une partie : décodage du snapshot binaire puis rejeu des manches journalisées.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestoreBenchmark {
+
+    @Param({"4"})
+    public int players;
+
+    @Param({"20", "500"})
+    public int snapshotRounds;
+
+    /** Au plus SNAPSHOT_INTERVAL - 1 manches dans le journal. */
+    @Param({"0", "24"})
+    public int journalRounds;
+
+    private byte[] snapshot;
+    private int[][] journal;
+    private int[] journalStarters;
+
+    @Setup
+    public void setUp() {
+        GameEngine game = BenchData.game(players, snapshotRounds, 1);
+        snapshot = GameCodec.encodeSnapshot(game.snapshot(snapshotRounds));
+        journal = BenchData.rounds(players, journalRounds, 2);
+        journalStarters = new int[journalRounds];
+        for (int i = 0; i < journalRounds; i++) {
+            game.applyRound(journal[i]);
+            journalStarters[i] = game.getStarterIndex();
+        }
+    }
+
+    @Benchmark
+    public GameEngine restore() throws IOException {
+        GameSnapshot decoded = GameCodec.decodeSnapshot(snapshot);
+        GameEngine game = GameEngine.fromSnapshot(decoded, new java.util.Random(0));
+        for (int i = 0; i < journal.length; i++) {
+            game.replayRound(journal[i], decoded.round + i + 1, journalStarters[i]);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.orchom.bench;
+
+import com.example.orchom.GameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation d'une manche sur une partie déjà longue (ajout des scores, rotation, détection de fin).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoundBenchmark {
+
+    @Param({"4"})
+    public int players;
+
+    @Param({"10", "500"})
+    public int existingRounds;
+
+    private GameEngine game;
+    private int[][] next;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = BenchData.game(players, existingRounds, 1);
+        next = BenchData.rounds(players, 1024, 2);
+        cursor = 0;
+    }
+
+    @Benchmark
+    public boolean validateRound() {
+        game.applyRound(next[cursor++ & 1023]);
+        return game.isGameOver();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.orchom.bench;
+
+import com.example.orchom.GameCodec;
+import com.example.orchom.GameConfig;
+import com.example.orchom.GameSnapshot;
+import com.example.orchom.Player;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Décodage de la partie sauvegardée : ancien format JSON contre snapshot binaire (GameCodec).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotDecodeBenchmark {
+
+    @Param({"4"})
+    public int players;
+
+    @Param({"120"})
+    public int rounds;
+
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        GameSnapshot snapshot = BenchData.game(players, rounds, 1).snapshot(rounds);
+        binary = GameCodec.encodeSnapshot(snapshot);
+
+        JSONArray list = new JSONArray();
+        for (Player p : snapshot.players) list.put(p.toJSON());
+        JSONObject save = new JSONObject();
+        save.put("game_config", snapshot.config.toJSON());
+        save.put("players", list);
+        json = save.toString();
+    }
+
+    @Benchmark
+    public long decodeJson() throws Exception {
+        JSONObject save = new JSONObject(json);
+        long checksum = GameConfig.fromJSON(save.getJSONObject("game_config")).playerCount;
+        JSONArray list = save.getJSONArray("players");
+        for (int p = 0; p < list.length(); p++) checksum += Player.fromJSON(list.getJSONObject(p)).getScore();
+        return checksum;
+    }
+
+    @Benchmark
+    public GameSnapshot decodeBinary() throws IOException {
+        return GameCodec.decodeSnapshot(binary);
+    }
+}
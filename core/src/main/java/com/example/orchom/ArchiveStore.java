@@ -0,0 +1,218 @@
+package com.example.orchom;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stockage froid en segments append-only : chaque enregistrement est compressé
+ * séparément (Deflate) pour être relu seul, à partir de son emplacement.
+ * Un enregistrement n'est jamais réécrit ; la compaction recopie les enregistrements
+ * vivants d'un segment dans le segment courant puis supprime l'ancien fichier.
+ *
+ * Format d'un enregistrement : magic (2 octets), taille brute, taille compressée,
+ * CRC32 des données brutes (int big-endian), puis les données compressées.
+ */
+public class ArchiveStore {
+
+    private static final int MAGIC = 0x4F41; // "OA"
+    private static final int HEADER_SIZE = 2 + 4 + 4 + 4;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".oa";
+
+    /**
+     * Emplacement d'un enregistrement : segment, position et longueur totale (en-tête compris).
+     */
+    public static final class Location {
+        public final int segment;
+        public final long offset;
+        public final int length;
+
+        public Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final File dir;
+    private final long maxSegmentBytes;
+
+    public ArchiveStore(File dir, long maxSegmentBytes) {
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Ajoute un enregistrement au segment courant (nouveau segment si celui-ci est plein)
+     * et le synchronise sur disque avant de rendre son emplacement.
+     */
+    public synchronized Location append(byte[] data) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        byte[] compressed = deflate(data);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+
+        int segment = currentSegment();
+        File file = segmentFile(segment);
+        if (file.length() > 0 && file.length() + HEADER_SIZE + compressed.length > maxSegmentBytes) {
+            segment++;
+            file = segmentFile(segment);
+        }
+        long offset = file.length();
+        byte[] record = new byte[HEADER_SIZE + compressed.length];
+        putShort(record, 0, MAGIC);
+        putInt(record, 2, data.length);
+        putInt(record, 6, compressed.length);
+        putInt(record, 10, (int) crc.getValue());
+        System.arraycopy(compressed, 0, record, HEADER_SIZE, compressed.length);
+
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(record);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        return new Location(segment, offset, record.length);
+    }
+
+    /**
+     * Relit et décompresse un enregistrement.
+     * @throws IOException si l'enregistrement est absent ou corrompu
+     */
+    public byte[] read(Location location) throws IOException {
+        byte[] record = new byte[location.length];
+        RandomAccessFile file = new RandomAccessFile(segmentFile(location.segment), "r");
+        try {
+            file.seek(location.offset);
+            file.readFully(record);
+        } finally {
+            file.close();
+        }
+        if (record.length < HEADER_SIZE || getShort(record, 0) != MAGIC) {
+            throw new IOException("Bad archive record at " + location.segment + ":" + location.offset);
+        }
+        int rawLength = getInt(record, 2);
+        int compressedLength = getInt(record, 6);
+        if (compressedLength != record.length - HEADER_SIZE || rawLength < 0) {
+            throw new IOException("Bad archive record length at " + location.segment + ":" + location.offset);
+        }
+        byte[] data = inflate(record, HEADER_SIZE, compressedLength, rawLength);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        if ((int) crc.getValue() != getInt(record, 10)) {
+            throw new IOException("Archive record checksum mismatch at " + location.segment + ":" + location.offset);
+        }
+        return data;
+    }
+
+    /**
+     * Segments existants, du plus ancien au plus récent.
+     */
+    public List<Integer> segments() {
+        List<Integer> ids = new ArrayList<>();
+        String[] names = dir.list();
+        if (names == null) return ids;
+        for (String name : names) {
+            if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) continue;
+            try {
+                ids.add(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            } catch (NumberFormatException ignored) {
+                // Fichier étranger au stockage
+            }
+        }
+        java.util.Collections.sort(ids);
+        return ids;
+    }
+
+    public long segmentSize(int segment) {
+        return segmentFile(segment).length();
+    }
+
+    /**
+     * Segment où vont les prochains ajouts (le plus récent, ou 0).
+     */
+    public synchronized int currentSegment() {
+        List<Integer> ids = segments();
+        return ids.isEmpty() ? 0 : ids.get(ids.size() - 1);
+    }
+
+    /**
+     * Supprime un segment dont plus aucun enregistrement n'est référencé.
+     */
+    public synchronized boolean deleteSegment(int segment) {
+        return segmentFile(segment).delete();
+    }
+
+    private File segmentFile(int segment) {
+        return new File(dir, PREFIX + String.format(java.util.Locale.ROOT, "%05d", segment) + SUFFIX);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] src, int offset, int length, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(src, offset, length);
+            byte[] data = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(data, n, rawLength - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += read;
+            }
+            if (n != rawLength) throw new IOException("Truncated archive record");
+            return data;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void putShort(byte[] b, int i, int v) {
+        b[i] = (byte) (v >>> 8);
+        b[i + 1] = (byte) v;
+    }
+
+    private static int getShort(byte[] b, int i) {
+        return ((b[i] & 0xFF) << 8) | (b[i + 1] & 0xFF);
+    }
+
+    private static void putInt(byte[] b, int i, int v) {
+        b[i] = (byte) (v >>> 24);
+        b[i + 1] = (byte) (v >>> 16);
+        b[i + 2] = (byte) (v >>> 8);
+        b[i + 3] = (byte) v;
+    }
+
+    private static int getInt(byte[] b, int i) {
+        return ((b[i] & 0xFF) << 24) | ((b[i + 1] & 0xFF) << 16) | ((b[i + 2] & 0xFF) << 8) | (b[i + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.orchom;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodage binaire compact et versionné des parties (snapshot courant et entrées d'historique).
+ *
+ * Format : "ORC" | version | type | table des chaînes | gameId | config | joueurs | fin.
+ * Les chaînes (noms, couleurs, nom de partie...) ne sont stockées qu'une fois dans la table
+ * et référencées par index ; les entiers sont des varints, les scores en zig-zag.
+ * Version 2 : identifiants du registre des joueurs (config et joueurs), 0 = inconnu.
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 2;
+    public static final int TYPE_SNAPSHOT = 1;
+    public static final int TYPE_HISTORY = 2;
+
+    private static final byte[] MAGIC = {'O', 'R', 'C'};
+
+    private GameCodec() {}
+
+    /**
+     * Lecture en flux : les valeurs sont remises au visiteur au fil du décodage,
+     * sans construire de Player ni de liste intermédiaire.
+     */
+    public interface Visitor {
+        void onHeader(int type, String gameId);
+        void onConfig(GameConfig config);
+        void onPlayer(int index, String name, int id, long playerId, String color, int score, int roundCount);
+        void onRoundScore(int playerIndex, int round, int score);
+        /** TYPE_SNAPSHOT uniquement. */
+        void onGameState(int round, int starterIndex, int journalSeq);
+        /** TYPE_HISTORY uniquement. */
+        void onHistoryInfo(long date, String imagePath);
+    }
+
+    // --- Encodage ---
+
+    public static byte[] encodeSnapshot(GameSnapshot snapshot) {
+        Output out = begin(TYPE_SNAPSHOT, snapshot, null);
+        out.writeVarint(snapshot.round);
+        out.writeVarint(snapshot.starterIndex);
+        out.writeVarint(snapshot.journalSeq);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeHistoryEntry(GameSnapshot snapshot, long date, String imagePath) {
+        Output out = begin(TYPE_HISTORY, snapshot, imagePath);
+        out.writeVarLong(date);
+        out.writeVarint(out.ref(imagePath));
+        return out.toByteArray();
+    }
+
+    private static Output begin(int type, GameSnapshot s, String extraString) {
+        Output out = new Output();
+        GameConfig c = s.config;
+
+        // Table des chaînes, construite avant l'écriture
+        out.intern(s.gameId);
+        out.intern(c.gameName);
+        out.intern(c.startingPlayerMode);
+        for (String n : c.playerNames) out.intern(n);
+        for (Player p : s.players) {
+            out.intern(p.getName());
+            out.intern(p.getColor());
+        }
+        out.intern(extraString);
+
+        out.writeBytes(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        out.writeStringTable();
+        out.writeVarint(out.ref(s.gameId));
+
+        out.writeVarint(out.ref(c.gameName));
+        out.writeVarint(c.playerCount);
+        out.writeZigZag(c.targetScore);
+        out.writeVarint(c.playerNames.length);
+        for (String n : c.playerNames) out.writeVarint(out.ref(n));
+        out.writeVarint(out.ref(c.startingPlayerMode));
+        out.writeVarint(c.firstPlayerIndex);
+        out.writeZigZag(c.ghaltaValue);
+        out.writeZigZag(c.frich1Value);
+        out.writeZigZag(c.frich2Value);
+        out.writeZigZag(c.memnechValue);
+        for (int i = 0; i < c.playerNames.length; i++) out.writeVarLong(c.getPlayerId(i));
+
+        out.writeVarint(s.players.size());
+        for (Player p : s.players) {
+            out.writeVarint(out.ref(p.getName()));
+            out.writeVarint(p.getId());
+            out.writeVarLong(p.getPlayerId());
+            out.writeVarint(out.ref(p.getColor()));
+            out.writeZigZag(p.getScore());
+            ScoreBuffer rounds = p.getRoundScoreBuffer();
+            int[] values = rounds.array();
+            out.writeVarint(rounds.size());
+            for (int i = 0; i < rounds.size(); i++) out.writeZigZag(values[i]);
+        }
+        return out;
+    }
+
+    // --- Décodage ---
+
+    public static void read(byte[] data, Visitor visitor) throws IOException {
+        Input in = new Input(data);
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) throw new IOException("Format inconnu");
+        }
+        int version = in.readByte();
+        if (version < 1 || version > VERSION) throw new IOException("Version non supportée : " + version);
+        int type = in.readByte();
+
+        String[] strings = new String[in.readVarint() + 1]; // index 0 = null
+        for (int i = 1; i < strings.length; i++) strings[i] = in.readString();
+
+        visitor.onHeader(type, in.readString(strings));
+
+        String gameName = in.readString(strings);
+        int playerCount = in.readVarint();
+        int targetScore = in.readZigZag();
+        String[] names = new String[in.readVarint()];
+        for (int i = 0; i < names.length; i++) names[i] = in.readString(strings);
+        String mode = in.readString(strings);
+        int firstPlayerIndex = in.readVarint();
+        int ghalta = in.readZigZag(), frich1 = in.readZigZag(), frich2 = in.readZigZag(), memnech = in.readZigZag();
+        long[] ids = null;
+        if (version >= 2) {
+            ids = new long[names.length];
+            boolean known = false;
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readVarLong();
+                known |= ids[i] != 0;
+            }
+            if (!known) ids = null;
+        }
+        visitor.onConfig(new GameConfig(gameName, playerCount, targetScore, names, ids, mode, firstPlayerIndex,
+                ghalta, frich1, frich2, memnech));
+
+        int players = in.readVarint();
+        for (int p = 0; p < players; p++) {
+            String name = in.readString(strings);
+            int id = in.readVarint();
+            long playerId = version >= 2 ? in.readVarLong() : 0;
+            String color = in.readString(strings);
+            int score = in.readZigZag();
+            int roundCount = in.readVarint();
+            visitor.onPlayer(p, name, id, playerId, color, score, roundCount);
+            for (int r = 0; r < roundCount; r++) {
+                visitor.onRoundScore(p, r, in.readZigZag());
+            }
+        }
+
+        if (type == TYPE_SNAPSHOT) {
+            visitor.onGameState(in.readVarint(), in.readVarint(), in.readVarint());
+        } else if (type == TYPE_HISTORY) {
+            visitor.onHistoryInfo(in.readVarLong(), in.readString(strings));
+        }
+    }
+
+    /**
+     * Reconstruit un snapshot complet (restauration de partie).
+     */
+    public static GameSnapshot decodeSnapshot(byte[] data) throws IOException {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        read(data, builder);
+        if (builder.type != TYPE_SNAPSHOT || builder.config == null) throw new IOException("Snapshot invalide");
+        return builder.build();
+    }
+
+    private static final class SnapshotBuilder implements Visitor {
+        int type;
+        String gameId;
+        GameConfig config;
+        final java.util.List<Player> players = new java.util.ArrayList<>();
+        int round = 1, starterIndex, journalSeq;
+        Player current;
+        int currentScore;
+
+        @Override public void onHeader(int type, String gameId) { this.type = type; this.gameId = gameId; }
+        @Override public void onConfig(GameConfig config) { this.config = config; }
+
+        @Override
+        public void onPlayer(int index, String name, int id, long playerId, String color, int score, int roundCount) {
+            finishPlayer();
+            current = new Player(name, id, color, playerId);
+            currentScore = score;
+            players.add(current);
+        }
+
+        @Override
+        public void onRoundScore(int playerIndex, int round, int score) {
+            current.addRoundScore(score);
+        }
+
+        @Override
+        public void onGameState(int round, int starterIndex, int journalSeq) {
+            this.round = round;
+            this.starterIndex = starterIndex;
+            this.journalSeq = journalSeq;
+        }
+
+        @Override public void onHistoryInfo(long date, String imagePath) {}
+
+        private void finishPlayer() {
+            // Le score stocké fait foi (addScore hors manches possible)
+            if (current != null) current.addScore(currentScore - current.getScore());
+        }
+
+        GameSnapshot build() {
+            finishPlayer();
+            return new GameSnapshot(gameId, config, players, round, starterIndex, journalSeq);
+        }
+    }
+
+    // --- Primitives ---
+
+    static final class Output {
+        private byte[] buf = new byte[256];
+        private int pos;
+        private final Map<String, Integer> table = new LinkedHashMap<>();
+
+        void intern(String s) {
+            if (s != null && !table.containsKey(s)) table.put(s, table.size() + 1);
+        }
+
+        int ref(String s) {
+            return s == null ? 0 : table.get(s);
+        }
+
+        void writeStringTable() {
+            writeVarint(table.size());
+            for (String s : table.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarint(bytes.length);
+                writeBytes(bytes);
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeZigZag(int value) {
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    static final class Input {
+        private final byte[] data;
+        private int pos;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= data.length) throw new IOException("Fin de données inattendue");
+            return data[pos++];
+        }
+
+        int readVarint() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("Varint invalide");
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("Varint invalide");
+        }
+
+        int readZigZag() throws IOException {
+            int v = readVarint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString() throws IOException {
+            int length = readVarint();
+            if (length < 0 || pos + length > data.length) throw new IOException("Chaîne invalide");
+            String s = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        String readString(String[] table) throws IOException {
+            int index = readVarint();
+            if (index < 0 || index >= table.length) throw new IOException("Référence de chaîne invalide");
+            return table[index];
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class GameConfig implements Serializable {
     public final int playerCount;
     public final int targetScore; // Score à atteindre pour perdre
     public final String[] playerNames;
+    // Identifiants stables du registre des joueurs (par siège), null si inconnus
+    public final long[] playerIds;
     
     // Motor configuration
     public final String startingPlayerMode; // "ALEATOIRE", "ROTATION", "MANUAL"
@@ -24,10 +26,18 @@ public class GameConfig implements Serializable {
     public GameConfig(String gameName, int playerCount, int targetScore, String[] playerNames,
                       String startingPlayerMode, int firstPlayerIndex,
                       int ghaltaValue, int frich1Value, int frich2Value, int memnechValue) {
+        this(gameName, playerCount, targetScore, playerNames, null, startingPlayerMode, firstPlayerIndex,
+                ghaltaValue, frich1Value, frich2Value, memnechValue);
+    }
+
+    public GameConfig(String gameName, int playerCount, int targetScore, String[] playerNames, long[] playerIds,
+                      String startingPlayerMode, int firstPlayerIndex,
+                      int ghaltaValue, int frich1Value, int frich2Value, int memnechValue) {
         this.gameName = gameName;
         this.playerCount = playerCount;
         this.targetScore = targetScore;
         this.playerNames = playerNames;
+        this.playerIds = playerIds;
         this.startingPlayerMode = startingPlayerMode;
         this.firstPlayerIndex = firstPlayerIndex;
         this.ghaltaValue = ghaltaValue;
@@ -36,6 +46,21 @@ public class GameConfig implements Serializable {
         this.memnechValue = memnechValue;
     }
 
+    /**
+     * Même configuration, joueurs rattachés au registre.
+     */
+    public GameConfig withPlayerIds(long[] ids) {
+        return new GameConfig(gameName, playerCount, targetScore, playerNames, ids, startingPlayerMode,
+                firstPlayerIndex, ghaltaValue, frich1Value, frich2Value, memnechValue);
+    }
+
+    /**
+     * @return l'identifiant du joueur assis à ce siège, 0 si inconnu
+     */
+    public long getPlayerId(int seat) {
+        return playerIds != null && seat < playerIds.length ? playerIds[seat] : 0;
+    }
+
     public org.json.JSONObject toJSON() {
         try {
             org.json.JSONObject json = new org.json.JSONObject();
@@ -45,6 +70,11 @@ public class GameConfig implements Serializable {
             org.json.JSONArray names = new org.json.JSONArray();
             for (String n : playerNames) names.put(n);
             json.put("playerNames", names);
+            if (playerIds != null) {
+                org.json.JSONArray ids = new org.json.JSONArray();
+                for (long id : playerIds) ids.put(id);
+                json.put("playerIds", ids);
+            }
             
             json.put("startingPlayerMode", startingPlayerMode);
             json.put("firstPlayerIndex", firstPlayerIndex);
@@ -67,12 +97,19 @@ public class GameConfig implements Serializable {
             String[] names = new String[count];
             org.json.JSONArray namesArr = json.getJSONArray("playerNames");
             for(int i=0; i<count; i++) names[i] = namesArr.getString(i);
+            long[] ids = null;
+            org.json.JSONArray idsArr = json.optJSONArray("playerIds");
+            if (idsArr != null && idsArr.length() == count) {
+                ids = new long[count];
+                for (int i = 0; i < count; i++) ids[i] = idsArr.getLong(i);
+            }
 
             return new GameConfig(
                 json.optString("gameName", "Partie sans nom"),
                 count,
                 json.getInt("targetScore"),
                 names,
+                ids,
                 json.optString("startingPlayerMode", "MANUAL"),
                 json.optInt("firstPlayerIndex", 0),
                 json.optInt("ghaltaValue", 10),
@@ -0,0 +1,229 @@
+package com.example.orchom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Règles d'une partie, sans dépendance Android : application des manches,
+ * rotation du joueur qui commence, détection du gagnant et du perdant.
+ * Le score le plus BAS gagne ; atteindre targetScore fait perdre.
+ */
+public class GameEngine {
+
+    public static final String MODE_RANDOM = "ALEATOIRE";
+    public static final String MODE_ROTATION = "ROTATION";
+    public static final String MODE_MANUAL = "MANUAL";
+
+    private static final String[] PLAYER_COLORS = {
+            "#C41E3A", // player_red
+            "#2E7D32", // player_green
+            "#F57C00", // player_orange
+            "#512DA8", // player_purple
+            "#1976D2", // player_blue
+    };
+
+    private final String gameId;
+    private final GameConfig config;
+    private final List<Player> players;
+    private final Random random;
+    private int round;
+    private int starterIndex;
+
+    private GameEngine(String gameId, GameConfig config, List<Player> players, int round, int starterIndex, Random random) {
+        this.gameId = gameId;
+        this.config = config;
+        this.players = players;
+        this.round = round;
+        this.starterIndex = starterIndex;
+        this.random = random;
+    }
+
+    public static String playerColorHex(int index) {
+        return PLAYER_COLORS[index % PLAYER_COLORS.length];
+    }
+
+    public static GameEngine newGame(String gameId, GameConfig config, Random random) {
+        List<Player> players = new ArrayList<>(config.playerCount);
+        for (int i = 0; i < config.playerCount; i++) {
+            players.add(new Player(config.playerNames[i], i, playerColorHex(i), config.getPlayerId(i)));
+        }
+        int starter = MODE_RANDOM.equals(config.startingPlayerMode)
+                ? random.nextInt(Math.max(1, config.playerCount))
+                : config.firstPlayerIndex;
+        return new GameEngine(gameId, config, players, 1, starter, random);
+    }
+
+    /**
+     * Reprend une partie depuis un snapshot (les joueurs du snapshot sont adoptés tels quels).
+     */
+    public static GameEngine fromSnapshot(GameSnapshot snapshot, Random random) {
+        return new GameEngine(snapshot.gameId, snapshot.config, new ArrayList<>(snapshot.players),
+                snapshot.round, snapshot.starterIndex, random);
+    }
+
+    /**
+     * Ajoute les scores d'une manche (un par joueur, dans l'ordre des sièges)
+     * puis passe à la manche suivante.
+     */
+    public void applyRound(int[] scores) {
+        if (scores.length != players.size()) {
+            throw new IllegalArgumentException("Expected " + players.size() + " scores, got " + scores.length);
+        }
+        for (int i = 0; i < scores.length; i++) {
+            players.get(i).addRoundScore(scores[i]);
+        }
+        startNextRound();
+    }
+
+    /**
+     * Rejoue une manche journalisée avec son état de fin (pas de tirage aléatoire).
+     */
+    public void replayRound(int[] scores, int nextRound, int nextStarterIndex) {
+        for (int i = 0; i < scores.length; i++) {
+            players.get(i).addRoundScore(scores[i]);
+        }
+        this.round = nextRound;
+        this.starterIndex = nextStarterIndex;
+    }
+
+    /**
+     * Corrige les scores d'une manche déjà jouée (index 0 = première manche).
+     * Totaux et classements après chaque manche suivent en O(log manches) par joueur.
+     * @return les scores remplacés, pour annuler
+     */
+    public int[] editRound(int roundIndex, int[] scores) {
+        if (scores.length != players.size()) {
+            throw new IllegalArgumentException("Expected " + players.size() + " scores, got " + scores.length);
+        }
+        if (roundIndex < 0 || roundIndex >= getPlayedRounds()) {
+            throw new IllegalArgumentException("No round " + roundIndex + " (" + getPlayedRounds() + " played)");
+        }
+        int[] previous = new int[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            previous[i] = players.get(i).setRoundScore(roundIndex, scores[i]);
+        }
+        return previous;
+    }
+
+    /**
+     * Annule la dernière manche jouée et rétablit la manche et le joueur qui commence d'avant.
+     * @return les scores retirés
+     */
+    public int[] removeLastRound(int previousRound, int previousStarterIndex) {
+        if (getPlayedRounds() == 0) throw new IllegalStateException("No round to remove");
+        int[] removed = new int[players.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = players.get(i).removeLastRound();
+        }
+        this.round = previousRound;
+        this.starterIndex = previousStarterIndex;
+        return removed;
+    }
+
+    /**
+     * Scores d'une manche jouée, dans l'ordre des sièges.
+     */
+    public int[] getRoundScores(int roundIndex) {
+        int[] scores = new int[players.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = players.get(i).getRoundScoreBuffer().get(roundIndex);
+        }
+        return scores;
+    }
+
+    /**
+     * Nombre de manches jouées (la manche en cours n'en fait pas partie).
+     */
+    public int getPlayedRounds() {
+        return players.isEmpty() ? 0 : players.get(0).getRoundCount();
+    }
+
+    private void startNextRound() {
+        round++;
+        if (MODE_ROTATION.equals(config.startingPlayerMode)) {
+            rotateStarter();
+        } else if (MODE_RANDOM.equals(config.startingPlayerMode)) {
+            starterIndex = random.nextInt(Math.max(1, config.playerCount));
+        }
+    }
+
+    public void rotateStarter() {
+        if (config.playerCount > 0) {
+            starterIndex = (starterIndex + 1) % config.playerCount;
+        }
+    }
+
+    public void setStarterIndex(int index) {
+        if (index >= 0 && index < config.playerCount) {
+            this.starterIndex = index;
+        }
+    }
+
+    /**
+     * Premier joueur (dans l'ordre des sièges) ayant atteint le score limite, ou null.
+     */
+    public Player getLoser() {
+        for (Player p : players) {
+            if (p.getScore() >= config.targetScore) return p;
+        }
+        return null;
+    }
+
+    /**
+     * Même règle que getLoser, sur des scores par siège : premier siège à atteindre l'objectif.
+     * @return le siège perdant, ou -1 si personne n'a atteint l'objectif
+     */
+    public static int findLoserSeat(int[] scores, int targetScore) {
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] >= targetScore) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Perdant d'une partie enregistrée (historique, statistiques) : findLoserSeat avec l'objectif
+     * de sa configuration. Objectif inconnu (targetScore <= 0, anciennes entrées sans
+     * configuration) : le premier score le plus haut.
+     * @return le siège perdant, ou -1 si personne n'a atteint l'objectif
+     */
+    public static int findRecordedLoserSeat(int[] scores, int targetScore) {
+        if (targetScore > 0) return findLoserSeat(scores, targetScore);
+        if (scores.length == 0) return -1;
+        int loser = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[loser]) loser = i;
+        }
+        return loser;
+    }
+
+    public boolean isGameOver() {
+        return getLoser() != null;
+    }
+
+    public Player getWinner() {
+        return findWinner(players);
+    }
+
+    public static Player findWinner(List<Player> players) {
+        if (players == null || players.isEmpty()) return null;
+        Player winner = players.get(0);
+        for (Player p : players) {
+            if (p.getScore() < winner.getScore()) {
+                winner = p;
+            }
+        }
+        return winner;
+    }
+
+    public GameSnapshot snapshot(int journalSeq) {
+        return new GameSnapshot(gameId, config, players, round, starterIndex, journalSeq);
+    }
+
+    public String getGameId() { return gameId; }
+    public GameConfig getConfig() { return config; }
+    public List<Player> getPlayers() { return Collections.unmodifiableList(players); }
+    public int getRound() { return round; }
+    public int getStarterIndex() { return starterIndex; }
+}
@@ -0,0 +1,34 @@
+package com.example.orchom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copie immuable de l'état d'une partie, transmise au PersistenceWriter.
+ * Les joueurs sont copiés : le thread d'écriture ne voit jamais l'état modifié par l'UI.
+ */
+public final class GameSnapshot {
+    public final String gameId;
+    public final GameConfig config;
+    public final List<Player> players;
+    public final int round;
+    public final int starterIndex;
+    public final int journalSeq;
+
+    public GameSnapshot(String gameId, GameConfig config, List<Player> players,
+                        int round, int starterIndex, int journalSeq) {
+        this.gameId = gameId;
+        this.config = config;
+        List<Player> copies = new ArrayList<>(players.size());
+        for (Player p : players) copies.add(p.copy());
+        this.players = Collections.unmodifiableList(copies);
+        this.round = round;
+        this.starterIndex = starterIndex;
+        this.journalSeq = journalSeq;
+    }
+
+    public Player getWinner() {
+        return GameEngine.findWinner(players);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export / import CSV de l'historique, une partie à la fois.
+ *
+ * Une ligne par joueur : game_id, date, game_name, seat, player, color, score, rounds
+ * (scores par manche séparés par ';'), target_score (objectif de la partie, vide s'il est
+ * inconnu). Les lignes d'une même partie sont consécutives ; le lecteur les regroupe et rend
+ * une entrée au format JSON de l'historique. Champs entre guillemets au besoin (RFC 4180).
+ *
+ * Format tableur, avec pertes : la photo et le reste de la configuration (valeurs des
+ * annonces, ordre de départ) ne sont pas repris. La sauvegarde complète est l'export JSON.
+ * Les fichiers sans target_score (premiers exports) restent lisibles.
+ */
+public final class HistoryCsv {
+
+    public static final String HEADER = "game_id,date,game_name,seat,player,color,score,rounds,target_score";
+    private static final String HEADER_NO_TARGET = "game_id,date,game_name,seat,player,color,score,rounds";
+    private static final char BOM = '\uFEFF';
+
+    private HistoryCsv() {}
+
+    public static void writeHeader(Appendable out) throws IOException {
+        out.append(HEADER).append("\r\n");
+    }
+
+    /**
+     * Écrit les lignes d'une entrée d'historique (format JSON de HistoryDatabase).
+     */
+    public static void writeGame(Appendable out, JSONObject entry) throws IOException {
+        JSONArray players = entry.optJSONArray("players");
+        if (players == null) return;
+        String gameId = entry.optString("game_id", "");
+        String date = String.valueOf(entry.optLong("date", 0));
+        String name = entry.optString("game_name", "");
+        JSONObject config = entry.optJSONObject("config");
+        int target = config != null ? config.optInt("targetScore", 0) : 0;
+        String targetScore = target > 0 ? String.valueOf(target) : "";
+        StringBuilder rounds = new StringBuilder();
+        for (int seat = 0; seat < players.length(); seat++) {
+            JSONObject p = players.optJSONObject(seat);
+            if (p == null) continue;
+            rounds.setLength(0);
+            JSONArray scores = p.optJSONArray("roundScores");
+            for (int r = 0; scores != null && r < scores.length(); r++) {
+                if (r > 0) rounds.append(';');
+                rounds.append(scores.optInt(r));
+            }
+            field(out, gameId).append(',');
+            field(out, date).append(',');
+            field(out, name).append(',');
+            field(out, String.valueOf(seat)).append(',');
+            field(out, p.optString("name", "")).append(',');
+            field(out, p.optString("color", "")).append(',');
+            field(out, String.valueOf(p.optInt("score", 0))).append(',');
+            field(out, rounds).append(',');
+            field(out, targetScore).append("\r\n");
+        }
+    }
+
+    private static Appendable field(Appendable out, CharSequence value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return out.append(value);
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Lecteur en flux : next() rend la partie suivante, ou null en fin de fichier.
+     * Ne garde en mémoire que la partie en cours et une ligne d'avance.
+     */
+    public static final class GameReader {
+        private final Reader in;
+        private final StringBuilder cell = new StringBuilder();
+        private String[] pending;
+        private int peeked = -2; // -2 : rien en réserve
+        private int lineNumber;
+        private int columns; // Fixé par l'en-tête
+
+        public GameReader(Reader in) {
+            this.in = in;
+        }
+
+        public JSONObject next() throws IOException {
+            if (lineNumber == 0) {
+                String[] header = readRow();
+                if (header == null) return null;
+                // Marque d'ordre d'octets ajoutée par les tableurs en UTF-8
+                if (header[0].length() > 0 && header[0].charAt(0) == BOM) header[0] = header[0].substring(1);
+                String columnNames = join(header);
+                if (!HEADER.equals(columnNames) && !HEADER_NO_TARGET.equals(columnNames)) {
+                    throw new IOException("Not an Orchom history CSV");
+                }
+                columns = header.length;
+            }
+            String[] row = pending != null ? pending : readRow();
+            pending = null;
+            if (row == null) return null;
+
+            try {
+                JSONObject entry = new JSONObject();
+                String gameId = row[0];
+                if (!gameId.isEmpty()) entry.put("game_id", gameId);
+                entry.put("date", parseLong(row[1]));
+                entry.put("game_name", row[2]);
+                if (row.length > 8 && !row[8].isEmpty()) {
+                    // Seul l'objectif est repris : il fixe le perdant (GameEngine.findRecordedLoserSeat)
+                    entry.put("config", new JSONObject().put("targetScore", (int) parseLong(row[8])));
+                }
+                JSONArray players = new JSONArray();
+                String key = row[0] + ',' + row[1] + ',' + row[2];
+                do {
+                    players.put(player(row));
+                    row = readRow();
+                } while (row != null && key.equals(row[0] + ',' + row[1] + ',' + row[2]));
+                pending = row;
+                entry.put("players", players);
+
+                // Mêmes règles que GameEngine.findWinner : premier score le plus bas
+                JSONObject winner = players.getJSONObject(0);
+                for (int i = 1; i < players.length(); i++) {
+                    if (players.getJSONObject(i).getInt("score") < winner.getInt("score")) {
+                        winner = players.getJSONObject(i);
+                    }
+                }
+                entry.put("winner", winner.getString("name"));
+                entry.put("winner_score", winner.getInt("score"));
+                return entry;
+            } catch (JSONException e) {
+                throw new IOException("Bad CSV near line " + lineNumber, e);
+            }
+        }
+
+        private JSONObject player(String[] row) throws JSONException, IOException {
+            JSONObject p = new JSONObject();
+            p.put("id", (int) parseLong(row[3]));
+            p.put("name", row[4]);
+            if (!row[5].isEmpty()) p.put("color", row[5]);
+            p.put("score", (int) parseLong(row[6]));
+            JSONArray rounds = new JSONArray();
+            if (!row[7].isEmpty()) {
+                for (String s : row[7].split(";")) rounds.put((int) parseLong(s.trim()));
+            }
+            p.put("roundScores", rounds);
+            return p;
+        }
+
+        private long parseLong(String s) throws IOException {
+            try {
+                return Long.parseLong(s.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad number '" + s + "' at line " + lineNumber);
+            }
+        }
+
+        /**
+         * Une ligne CSV (les champs entre guillemets peuvent contenir des retours à la ligne).
+         * Les lignes vides sont ignorées. Après l'en-tête, chaque ligne doit en avoir le nombre de colonnes.
+         */
+        private String[] readRow() throws IOException {
+            List<String> row = new ArrayList<>(Math.max(columns, 8));
+            boolean quoted = false;
+            boolean any = false;
+            cell.setLength(0);
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    if (!any) return null;
+                    break;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            cell.append('"');
+                        } else {
+                            quoted = false;
+                            unread(n);
+                        }
+                    } else {
+                        cell.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        int n = read();
+                        if (n != '\n') unread(n);
+                    }
+                    if (row.isEmpty() && cell.length() == 0) {
+                        any = false;
+                        continue; // Ligne vide
+                    }
+                    break;
+                } else {
+                    cell.append((char) c);
+                }
+            }
+            row.add(cell.toString());
+            lineNumber++;
+            if (columns > 0 && row.size() != columns) {
+                throw new IOException("Expected " + columns + " columns at line " + lineNumber + ", got " + row.size());
+            }
+            return row.toArray(new String[0]);
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            peeked = c;
+        }
+
+        private static String join(String[] row) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(row[i]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Identifiant stable des parties enregistrées sans game_id (historique antérieur aux
+ * identifiants, fichiers d'export de ces parties) : dérivé du contenu, soit la date, le nom
+ * de la partie, puis nom et score final de chaque joueur dans l'ordre des sièges.
+ *
+ * Le même contenu donne le même identifiant en base, en JSON comme en CSV : réimporter une
+ * partie la met à jour au lieu de la dupliquer. Les manches n'entrent pas dans le calcul
+ * (elles peuvent être archivées) ; les scores finaux suffisent à distinguer deux parties.
+ */
+public final class LegacyGameId {
+
+    static final String PREFIX = "legacy-";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private LegacyGameId() {}
+
+    public static String of(long date, String gameName, String[] names, int[] scores) {
+        long h = mix(FNV_OFFSET, Long.toString(date));
+        h = mix(h, gameName != null ? gameName : "");
+        for (int i = 0; i < names.length; i++) {
+            h = mix(h, names[i] != null ? names[i] : "");
+            h = mix(h, Integer.toString(scores[i]));
+        }
+        return PREFIX + Long.toHexString(h);
+    }
+
+    /**
+     * Identifiant d'une entrée au format JSON de l'historique (players[].name / score).
+     */
+    public static String of(JSONObject entry) {
+        JSONArray players = entry.optJSONArray("players");
+        int n = players != null ? players.length() : 0;
+        String[] names = new String[n];
+        int[] scores = new int[n];
+        for (int i = 0; i < n; i++) {
+            JSONObject p = players.optJSONObject(i);
+            names[i] = p != null ? p.optString("name", "") : "";
+            scores[i] = p != null ? p.optInt("score", 0) : 0;
+        }
+        return of(entry.optLong("date", 0), entry.optString("game_name", ""), names, scores);
+    }
+
+    // FNV-1a 64 bits sur les caractères, champ terminé par un séparateur
+    private static long mix(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0x1f) * FNV_PRIME;
+    }
+}
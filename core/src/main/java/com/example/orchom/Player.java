@@ -4,17 +4,23 @@ import java.io.Serializable;
 
 public class Player implements Serializable {
     private String name;
-    private int id;
+    private int id; // Siège dans la partie
+    private long playerId; // Identifiant stable du registre, 0 si inconnu
     private String color;
     private int score;
-    private java.util.List<Integer> roundScores;
+    private final ScoreBuffer roundScores;
 
     public Player(String name, int id, String color) {
+        this(name, id, color, 0);
+    }
+
+    public Player(String name, int id, String color, long playerId) {
         this.name = name;
         this.id = id;
+        this.playerId = playerId;
         this.color = color;
         this.score = 0;
-        this.roundScores = new java.util.ArrayList<>();
+        this.roundScores = new ScoreBuffer();
     }
 
     public void addScore(int points) {
@@ -26,10 +32,57 @@ public class Player implements Serializable {
         this.score += points;
     }
 
+    /**
+     * Corrige le score d'une manche passée ; le total suit.
+     * @return l'ancien score de la manche
+     */
+    public int setRoundScore(int round, int points) {
+        int previous = roundScores.get(round);
+        this.score += roundScores.set(round, points);
+        return previous;
+    }
+
+    /**
+     * Retire la dernière manche (annulation) et son score du total.
+     */
+    public int removeLastRound() {
+        int removed = roundScores.removeLast();
+        this.score -= removed;
+        return removed;
+    }
+
+    /**
+     * Vue en lecture seule (compatibilité) ; préférer getRoundScoreBuffer() pour éviter le boxing.
+     */
     public java.util.List<Integer> getRoundScores() {
+        return roundScores.asList();
+    }
+
+    public ScoreBuffer getRoundScoreBuffer() {
         return roundScores;
     }
 
+    public int getRoundCount() {
+        return roundScores.size();
+    }
+
+    /**
+     * Score cumulé après les `rounds` premières manches, en O(log n).
+     */
+    public int getScoreAfterRound(int rounds) {
+        return roundScores.sumOfFirst(rounds);
+    }
+
+    /**
+     * Copie indépendante (scores de manche compris), utilisée pour les snapshots de persistance.
+     */
+    public Player copy() {
+        Player p = new Player(name, id, color, playerId);
+        p.score = score;
+        p.roundScores.addAll(roundScores);
+        return p;
+    }
+
     public void resetScores() {
         this.score = 0;
         this.roundScores.clear();
@@ -38,6 +91,7 @@ public class Player implements Serializable {
     // Getters
     public String getName() { return name; }
     public int getId() { return id; }
+    public long getPlayerId() { return playerId; }
     public String getColor() { return color; }
     public int getScore() { return score; }
 
@@ -47,10 +101,12 @@ public class Player implements Serializable {
             org.json.JSONObject json = new org.json.JSONObject();
             json.put("name", name);
             json.put("id", id);
+            if (playerId > 0) json.put("player_id", playerId);
             json.put("color", color);
             json.put("score", score);
             org.json.JSONArray rounds = new org.json.JSONArray();
-            for (int rs : roundScores) rounds.put(rs);
+            int[] values = roundScores.array();
+            for (int i = 0; i < roundScores.size(); i++) rounds.put(values[i]);
             json.put("roundScores", rounds);
             return json;
         } catch (org.json.JSONException e) {
@@ -64,7 +120,8 @@ public class Player implements Serializable {
             Player p = new Player(
                 json.getString("name"),
                 json.getInt("id"),
-                json.getString("color")
+                json.getString("color"),
+                json.optLong("player_id", 0)
             );
             p.score = json.getInt("score");
             org.json.JSONArray rounds = json.optJSONArray("roundScores");
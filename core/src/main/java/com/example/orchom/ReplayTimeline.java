@@ -0,0 +1,110 @@
+package com.example.orchom;
+
+/**
+ * Chronologie précalculée d'une partie terminée, pour le rejeu manche par manche.
+ * Construite une fois (O(manches × joueurs), classement entretenu par tri par insertion
+ * depuis la manche précédente) ; chaque lecture est ensuite un accès direct aux tableaux,
+ * quel que soit le nombre de manches ou de joueurs.
+ *
+ * Étape 0 = avant la première manche (tous à 0), étape k = après la manche k.
+ * Rang 0 = meilleur (score le plus bas), égalités départagées par siège comme GameEngine.findWinner.
+ */
+public final class ReplayTimeline {
+
+    private final int players;
+    private final int rounds;
+    // Matrices à plat, ligne = étape : [step * players + seat]
+    private final int[] cumulative;
+    private final int[] roundScores;  // Étape 0 : zéros
+    private final short[] rank;       // Rang du joueur à chaque étape
+    private final short[] order;      // Siège du joueur à chaque rang
+    private final int minCumulative;
+    private final int maxCumulative;
+
+    /**
+     * @param scores scores de manche par siège ; une manche manquante compte 0
+     */
+    public static ReplayTimeline build(int[][] scores) {
+        int players = scores.length;
+        int rounds = 0;
+        for (int[] s : scores) rounds = Math.max(rounds, s.length);
+        return new ReplayTimeline(scores, players, rounds);
+    }
+
+    private ReplayTimeline(int[][] scores, int players, int rounds) {
+        this.players = players;
+        this.rounds = rounds;
+        int steps = rounds + 1;
+        cumulative = new int[steps * players];
+        roundScores = new int[steps * players];
+        rank = new short[steps * players];
+        order = new short[steps * players];
+
+        short[] current = new short[players];
+        for (int p = 0; p < players; p++) {
+            current[p] = (short) p;
+            order[p] = (short) p;
+            rank[p] = (short) p;
+        }
+        int min = 0, max = 0;
+        for (int step = 1; step < steps; step++) {
+            int row = step * players;
+            int prev = row - players;
+            for (int p = 0; p < players; p++) {
+                int score = step - 1 < scores[p].length ? scores[p][step - 1] : 0;
+                roundScores[row + p] = score;
+                int value = cumulative[prev + p] + score;
+                cumulative[row + p] = value;
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            // L'ordre de la manche précédente est presque trié : tri par insertion quasi linéaire
+            for (int i = 1; i < players; i++) {
+                short seat = current[i];
+                int j = i - 1;
+                while (j >= 0 && before(row, seat, current[j])) {
+                    current[j + 1] = current[j];
+                    j--;
+                }
+                current[j + 1] = seat;
+            }
+            for (int k = 0; k < players; k++) {
+                order[row + k] = current[k];
+                rank[row + current[k]] = (short) k;
+            }
+        }
+        minCumulative = min;
+        maxCumulative = max;
+    }
+
+    private boolean before(int row, int a, int b) {
+        int va = cumulative[row + a], vb = cumulative[row + b];
+        return va < vb || (va == vb && a < b);
+    }
+
+    public int getPlayerCount() { return players; }
+
+    /** Nombre de manches ; les étapes vont de 0 à getRoundCount(). */
+    public int getRoundCount() { return rounds; }
+
+    public int cumulative(int step, int seat) {
+        return cumulative[step * players + seat];
+    }
+
+    /** Score marqué pendant la manche `step` (0 pour l'étape 0). */
+    public int roundScore(int step, int seat) {
+        return roundScores[step * players + seat];
+    }
+
+    public int rank(int step, int seat) {
+        return rank[step * players + seat];
+    }
+
+    public int seatAtRank(int step, int rankIndex) {
+        return order[step * players + rankIndex];
+    }
+
+    /** Bornes des cumuls sur toute la partie (0 inclus), pour une échelle fixe. */
+    public int getMinCumulative() { return minCumulative; }
+    public int getMaxCumulative() { return maxCumulative; }
+}
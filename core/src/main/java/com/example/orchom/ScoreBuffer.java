@@ -0,0 +1,138 @@
+package com.example.orchom;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tampon extensible de scores de manche en int primitifs (pas de boxing),
+ * doublé d'un arbre de Fenwick (binary indexed tree) des sommes cumulées :
+ * ajouter, corriger une manche passée ou lire le score après la manche k coûtent O(log n).
+ */
+public final class ScoreBuffer implements Serializable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] scores;
+    // Indices 1..size : tree[i] = somme des manches (i - lowbit(i), i]
+    private int[] tree;
+    private int size;
+    private int total;
+
+    public ScoreBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ScoreBuffer(int capacity) {
+        scores = new int[Math.max(1, capacity)];
+        tree = new int[scores.length + 1];
+    }
+
+    public void add(int score) {
+        if (size == scores.length) {
+            int newCapacity = scores.length * 2;
+            scores = Arrays.copyOf(scores, newCapacity);
+            tree = Arrays.copyOf(tree, newCapacity + 1); // Les nœuds ne dépendent pas de la capacité
+        }
+        int i = size + 1;
+        // Le nœud i couvre (i - lowbit(i), i] : la nouvelle manche plus les précédentes de l'intervalle
+        tree[i] = score + prefixSum(i - 1) - prefixSum(i - (i & -i));
+        scores[size] = score;
+        size++;
+        total += score;
+    }
+
+    public void addAll(ScoreBuffer other) {
+        for (int i = 0; i < other.size; i++) add(other.scores[i]);
+    }
+
+    public int get(int round) {
+        if (round < 0 || round >= size) throw new IndexOutOfBoundsException("round " + round + ", size " + size);
+        return scores[round];
+    }
+
+    /**
+     * Corrige une manche passée, en O(log n).
+     * @return l'écart appliqué (nouveau score - ancien)
+     */
+    public int set(int round, int score) {
+        int delta = score - get(round);
+        if (delta == 0) return 0;
+        scores[round] = score;
+        for (int i = round + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+        return delta;
+    }
+
+    /**
+     * Retire la dernière manche (annulation). Le nœud libéré sera recalculé au prochain ajout.
+     * @return le score retiré
+     */
+    public int removeLast() {
+        if (size == 0) throw new IndexOutOfBoundsException("empty");
+        size--;
+        total -= scores[size];
+        return scores[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Somme des `rounds` premières manches (score après la manche `rounds`), en O(log n).
+     */
+    public int sumOfFirst(int rounds) {
+        if (rounds < 0 || rounds > size) throw new IndexOutOfBoundsException("rounds " + rounds + ", size " + size);
+        return rounds == size ? total : prefixSum(rounds);
+    }
+
+    private int prefixSum(int rounds) {
+        int sum = 0;
+        for (int i = rounds; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public void clear() {
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * Tableau interne, sans copie. Seuls les size() premiers éléments sont valides ;
+     * l'appelant ne doit pas le modifier.
+     */
+    public int[] array() {
+        return scores;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(scores, size);
+    }
+
+    /**
+     * Vue List en lecture seule, pour les appelants qui attendent des Integer.
+     */
+    public List<Integer> asList() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return ScoreBuffer.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
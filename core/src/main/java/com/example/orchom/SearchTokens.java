@@ -0,0 +1,44 @@
+package com.example.orchom;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage des noms (partie, joueurs) en mots normalisés pour l'index de recherche :
+ * minuscules, sans accents, séparés sur tout ce qui n'est ni lettre ni chiffre.
+ * La même normalisation s'applique à l'index et à la saisie : "Sámi" trouve "sami".
+ */
+public final class SearchTokens {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokens() {}
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Mots distincts du texte, dans l'ordre d'apparition.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Borne supérieure exclusive des mots commençant par {@code prefix} (requête par intervalle).
+     */
+    public static String prefixUpperBound(String prefix) {
+        return prefix + Character.MAX_VALUE;
+    }
+}
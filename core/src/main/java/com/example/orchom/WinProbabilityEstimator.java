@@ -0,0 +1,185 @@
+package com.example.orchom;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimation Monte Carlo des chances de chaque joueur de gagner ou de sauter (atteindre
+ * l'objectif) : la fin de partie est simulée des milliers de fois en tirant chaque score
+ * de manche dans la distribution observée du joueur.
+ *
+ * Les simulations sont réparties en RecursiveTask sur un ForkJoinPool (vol de tâches entre
+ * cœurs), par lots de taille croissante : le listener reçoit une estimation affinée après
+ * chaque lot, jusqu'à MAX_SIMULATIONS ou au budget de temps. Une estimation se relance
+ * en annulant la précédente (cancel), vérifiée entre deux blocs de simulations.
+ */
+public final class WinProbabilityEstimator {
+
+    public static final int MAX_SIMULATIONS = 20_000;
+    public static final long TIME_BUDGET_MS = 200;
+
+    private static final int FIRST_BATCH = 1_000;
+    private static final int LEAF_SIZE = 250;
+    // Garde-fou si les distributions font stagner les scores (manches à 0 ou négatives)
+    static final int MAX_SIMULATED_ROUNDS = 500;
+
+    public interface Listener {
+        /** Appelé sur un thread du pool, une fois par lot. */
+        void onEstimate(Result result);
+    }
+
+    public static final class Result {
+        public final int simulations;
+        public final boolean complete;
+        private final long[] wins;
+        private final long[] busts;
+
+        Result(int simulations, boolean complete, long[] wins, long[] busts) {
+            this.simulations = simulations;
+            this.complete = complete;
+            this.wins = wins;
+            this.busts = busts;
+        }
+
+        public int getPlayerCount() { return wins.length; }
+
+        public double winChance(int seat) {
+            return simulations == 0 ? 0 : wins[seat] / (double) simulations;
+        }
+
+        public double bustChance(int seat) {
+            return simulations == 0 ? 0 : busts[seat] / (double) simulations;
+        }
+    }
+
+    /**
+     * Estimation en cours ; cancel() l'arrête au prochain bloc, sans nouveau callback.
+     */
+    public static final class Estimate {
+        private volatile boolean cancelled;
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public WinProbabilityEstimator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param totals        scores actuels, par siège
+     * @param distributions scores de manche observés par siège (non vides)
+     */
+    public Estimate start(int[] totals, int[][] distributions, int targetScore, long seed, Listener listener) {
+        for (int[] d : distributions) {
+            if (d.length == 0) throw new IllegalArgumentException("Empty distribution");
+        }
+        final int[] start = totals.clone();
+        final Estimate estimate = new Estimate();
+        final SplittableRandom random = new SplittableRandom(seed);
+        pool.execute(() -> {
+            long deadline = System.nanoTime() + TIME_BUDGET_MS * 1_000_000L;
+            long[] wins = new long[start.length];
+            long[] busts = new long[start.length];
+            int done = 0;
+            int batch = FIRST_BATCH;
+            while (!estimate.cancelled) {
+                batch = Math.min(batch, MAX_SIMULATIONS - done);
+                long[] counts = new Batch(start, distributions, targetScore, batch, random.split(), estimate).invoke();
+                if (estimate.cancelled) return;
+                for (int i = 0; i < start.length; i++) {
+                    wins[i] += counts[i];
+                    busts[i] += counts[start.length + i];
+                }
+                done += batch;
+                boolean complete = done >= MAX_SIMULATIONS || System.nanoTime() >= deadline;
+                listener.onEstimate(new Result(done, complete, wins.clone(), busts.clone()));
+                if (complete) return;
+                batch *= 2;
+            }
+        });
+        return estimate;
+    }
+
+    /**
+     * Simulations séquentielles, sur le thread appelant.
+     * @return victoires par siège puis sauts par siège (tableau de 2 × joueurs)
+     */
+    static long[] simulate(int[] totals, int[][] distributions, int targetScore, int simulations, SplittableRandom random) {
+        int n = totals.length;
+        long[] counts = new long[2 * n];
+        int[] scores = new int[n];
+        for (int s = 0; s < simulations; s++) {
+            System.arraycopy(totals, 0, scores, 0, n);
+            boolean over = isOver(scores, targetScore);
+            for (int round = 0; !over && round < MAX_SIMULATED_ROUNDS; round++) {
+                for (int i = 0; i < n; i++) {
+                    int[] d = distributions[i];
+                    scores[i] += d[random.nextInt(d.length)];
+                }
+                over = isOver(scores, targetScore);
+            }
+            // Vainqueur : score le plus bas, premier siège en cas d'égalité (GameEngine.findWinner)
+            int winner = 0;
+            for (int i = 0; i < n; i++) {
+                if (scores[i] >= targetScore) counts[n + i]++;
+                if (scores[i] < scores[winner]) winner = i;
+            }
+            counts[winner]++;
+        }
+        return counts;
+    }
+
+    private static boolean isOver(int[] scores, int targetScore) {
+        for (int score : scores) {
+            if (score >= targetScore) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lot de simulations coupé en deux jusqu'à LEAF_SIZE ; chaque moitié a son propre générateur.
+     */
+    private static final class Batch extends RecursiveTask<long[]> {
+        private final int[] totals;
+        private final int[][] distributions;
+        private final int targetScore;
+        private final int simulations;
+        private final SplittableRandom random;
+        private final Estimate estimate;
+
+        Batch(int[] totals, int[][] distributions, int targetScore, int simulations,
+              SplittableRandom random, Estimate estimate) {
+            this.totals = totals;
+            this.distributions = distributions;
+            this.targetScore = targetScore;
+            this.simulations = simulations;
+            this.random = random;
+            this.estimate = estimate;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (estimate.cancelled) return new long[2 * totals.length];
+            if (simulations <= LEAF_SIZE) {
+                return simulate(totals, distributions, targetScore, simulations, random);
+            }
+            int half = simulations / 2;
+            Batch left = new Batch(totals, distributions, targetScore, half, random.split(), estimate);
+            Batch right = new Batch(totals, distributions, targetScore, simulations - half, random, estimate);
+            left.fork();
+            long[] counts = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < counts.length; i++) counts[i] += other[i];
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Segments d'archive : relecture par emplacement, changement de segment, corruption détectée.
+ */
+public class ArchiveStoreTest {
+
+    private static File newDir() throws IOException {
+        File dir = Files.createTempDirectory("archive").toFile();
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    private static byte[] payload(int seed) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) sb.append((seed * 31 + i) % 50).append(',');
+        return sb.append("0]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void append_thenReadEachRecordByLocation() throws IOException {
+        ArchiveStore store = new ArchiveStore(newDir(), 1 << 20);
+        ArchiveStore.Location a = store.append(payload(1));
+        ArchiveStore.Location b = store.append(payload(2));
+
+        assertArrayEquals(payload(2), store.read(b));
+        assertArrayEquals(payload(1), store.read(a));
+        assertEquals(a.length, b.offset);
+        assertTrue("records are compressed", a.length < payload(1).length);
+    }
+
+    @Test
+    public void append_rollsOverToNewSegmentWhenFull() throws IOException {
+        ArchiveStore store = new ArchiveStore(newDir(), 64);
+        ArchiveStore.Location a = store.append(payload(1));
+        ArchiveStore.Location b = store.append(payload(2));
+
+        assertEquals(0, a.segment);
+        assertEquals(1, b.segment);
+        assertEquals(0, b.offset);
+        assertEquals(2, store.segments().size());
+        assertEquals(1, store.currentSegment());
+        assertArrayEquals(payload(1), store.read(a));
+
+        assertTrue(store.deleteSegment(0));
+        assertEquals(1, store.segments().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void read_detectsCorruptedRecord() throws IOException {
+        File dir = newDir();
+        ArchiveStore store = new ArchiveStore(dir, 1 << 20);
+        ArchiveStore.Location a = store.append(payload(1));
+
+        RandomAccessFile file = new RandomAccessFile(new File(dir, dir.list()[0]), "rw");
+        try {
+            file.seek(a.offset + a.length - 2);
+            file.write(0x5A);
+        } finally {
+            file.close();
+        }
+        store.read(a);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Aller-retour du format binaire et comparaison de taille avec l'ancien format JSON
+ * (vitesse de décodage : SnapshotDecodeBenchmark, source set jmh).
+ */
+public class GameCodecTest {
+
+    private static GameSnapshot sampleGame(int players, int rounds) {
+        String[] names = new String[players];
+        long[] ids = new long[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "Joueur " + (i + 1);
+            ids[i] = 100 + i;
+        }
+        GameConfig config = new GameConfig("Soirée du vendredi", players, 500, names, ids, "ROTATION", 0, 50, 10, 20, 100);
+
+        Random random = new Random(42);
+        List<Player> list = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            Player p = new Player(names[i], i, GameEngine.playerColorHex(i), ids[i]);
+            for (int r = 0; r < rounds; r++) {
+                p.addRoundScore(random.nextInt(5) == 0 ? -10 * (1 + random.nextInt(10)) : random.nextInt(120));
+            }
+            list.add(p);
+        }
+        return new GameSnapshot("6f1c2a7e-52b4-4c1e-9a57-0e3d2f6b8c11", config, list, rounds + 1, 2, rounds);
+    }
+
+    private static String legacyJson(GameSnapshot s) throws Exception {
+        JSONArray players = new JSONArray();
+        for (Player p : s.players) players.put(p.toJSON());
+        JSONObject save = new JSONObject();
+        save.put("game_config", s.config.toJSON());
+        save.put("players", players);
+        return save.toString();
+    }
+
+    @Test
+    public void snapshot_roundTrip() throws Exception {
+        GameSnapshot original = sampleGame(4, 120);
+        GameSnapshot decoded = GameCodec.decodeSnapshot(GameCodec.encodeSnapshot(original));
+
+        assertEquals(original.gameId, decoded.gameId);
+        assertEquals(original.round, decoded.round);
+        assertEquals(original.starterIndex, decoded.starterIndex);
+        assertEquals(original.journalSeq, decoded.journalSeq);
+        assertEquals(original.config.gameName, decoded.config.gameName);
+        assertArrayEquals(original.config.playerNames, decoded.config.playerNames);
+        assertArrayEquals(original.config.playerIds, decoded.config.playerIds);
+        assertEquals(original.players.size(), decoded.players.size());
+        for (int i = 0; i < original.players.size(); i++) {
+            Player a = original.players.get(i);
+            Player b = decoded.players.get(i);
+            assertEquals(a.getName(), b.getName());
+            assertEquals(a.getPlayerId(), b.getPlayerId());
+            assertEquals(a.getColor(), b.getColor());
+            assertEquals(a.getScore(), b.getScore());
+            assertArrayEquals(a.getRoundScoreBuffer().toArray(), b.getRoundScoreBuffer().toArray());
+        }
+    }
+
+    @Test
+    public void historyEntry_streamsHeaderAndInfo() throws Exception {
+        GameSnapshot game = sampleGame(2, 10);
+        byte[] data = GameCodec.encodeHistoryEntry(game, 1700000000000L, "/photos/a.jpg");
+        final long[] date = new long[1];
+        final String[] path = new String[1];
+        final int[] rounds = new int[1];
+        GameCodec.read(data, new GameCodec.Visitor() {
+            @Override public void onHeader(int type, String gameId) { assertEquals(GameCodec.TYPE_HISTORY, type); }
+            @Override public void onConfig(GameConfig config) {}
+            @Override public void onPlayer(int index, String name, int id, long playerId, String color, int score, int roundCount) {}
+            @Override public void onRoundScore(int playerIndex, int round, int score) { rounds[0]++; }
+            @Override public void onGameState(int round, int starterIndex, int journalSeq) { fail(); }
+            @Override public void onHistoryInfo(long d, String imagePath) { date[0] = d; path[0] = imagePath; }
+        });
+        assertEquals(1700000000000L, date[0]);
+        assertEquals("/photos/a.jpg", path[0]);
+        assertEquals(20, rounds[0]);
+    }
+
+    @Test
+    public void binary_isMoreCompactThanJson() throws Exception {
+        GameSnapshot game = sampleGame(4, 120);
+        String json = legacyJson(game);
+        byte[] binary = GameCodec.encodeSnapshot(game);
+        int jsonBytes = json.getBytes("UTF-8").length;
+
+        assertTrue(binary.length * 2 < jsonBytes);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Règles de la partie : rotation du premier joueur, gagnant au score le plus bas, fin de partie.
+ */
+public class GameEngineTest {
+
+    private static GameEngine newGame(String mode) {
+        GameConfig config = new GameConfig("Test", 3, 100, new String[]{"A", "B", "C"}, mode, 1, 50, 10, 20, 100);
+        return GameEngine.newGame("id-1", config, new Random(7));
+    }
+
+    @Test
+    public void applyRound_addsScoresAndRotatesStarter() {
+        GameEngine game = newGame(GameEngine.MODE_ROTATION);
+        assertEquals(1, game.getStarterIndex());
+
+        game.applyRound(new int[]{10, -10, 30});
+        game.applyRound(new int[]{5, 5, 5});
+
+        assertEquals(3, game.getRound());
+        assertEquals(0, game.getStarterIndex());
+        assertEquals(15, game.getPlayers().get(0).getScore());
+        assertEquals("B", game.getWinner().getName());
+        assertNull(game.getLoser());
+    }
+
+    @Test
+    public void reachingTarget_endsGame() {
+        GameEngine game = newGame(GameEngine.MODE_MANUAL);
+        game.applyRound(new int[]{20, 100, 0});
+
+        assertEquals(1, game.getStarterIndex()); // Mode manuel : pas de rotation
+        assertTrue(game.isGameOver());
+        assertEquals("B", game.getLoser().getName());
+        assertEquals("C", game.getWinner().getName());
+    }
+
+    @Test
+    public void findLoserSeat_isFirstSeatAtTarget() {
+        // Deux joueurs au-delà de l'objectif : le premier siège perd, pas le plus haut score
+        assertEquals(0, GameEngine.findLoserSeat(new int[]{100, 140, 20}, 100));
+        assertEquals(-1, GameEngine.findLoserSeat(new int[]{90, 99, 20}, 100));
+    }
+
+    @Test
+    public void findRecordedLoserSeat_fallsBackToHighestScoreWithoutTarget() {
+        assertEquals(0, GameEngine.findRecordedLoserSeat(new int[]{100, 140, 20}, 100));
+        assertEquals(-1, GameEngine.findRecordedLoserSeat(new int[]{90, 99, 20}, 100));
+        assertEquals(1, GameEngine.findRecordedLoserSeat(new int[]{100, 140, 140}, 0));
+        assertEquals(-1, GameEngine.findRecordedLoserSeat(new int[0], 0));
+    }
+
+    @Test
+    public void snapshotThenReplay_matchesLiveGame() {
+        GameEngine live = newGame(GameEngine.MODE_ROTATION);
+        live.applyRound(new int[]{1, 2, 3});
+        GameEngine restored = GameEngine.fromSnapshot(live.snapshot(1), new Random());
+
+        live.applyRound(new int[]{4, 5, 6});
+        restored.replayRound(new int[]{4, 5, 6}, live.getRound(), live.getStarterIndex());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(live.getPlayers().get(i).getScore(), restored.getPlayers().get(i).getScore());
+        }
+        assertEquals(live.getRound(), restored.getRound());
+        assertEquals(live.getStarterIndex(), restored.getStarterIndex());
+    }
+
+    @Test
+    public void editRound_updatesTotalsAndLaterStandings() {
+        GameEngine game = newGame(GameEngine.MODE_ROTATION);
+        game.applyRound(new int[]{10, 0, 5});
+        game.applyRound(new int[]{0, 20, 5});
+        game.applyRound(new int[]{5, 5, 5});
+
+        int[] previous = game.editRound(0, new int[]{0, 0, 50});
+
+        assertArrayEquals(new int[]{10, 0, 5}, previous);
+        assertArrayEquals(new int[]{0, 0, 50}, game.getRoundScores(0));
+        assertEquals(5, game.getPlayers().get(0).getScore());
+        assertEquals(60, game.getPlayers().get(2).getScore());
+        assertEquals(50, game.getPlayers().get(2).getScoreAfterRound(1));
+        assertEquals(55, game.getPlayers().get(2).getScoreAfterRound(2));
+        assertEquals("A", game.getWinner().getName());
+        assertEquals(4, game.getRound()); // Corriger ne change pas la manche en cours
+    }
+
+    @Test
+    public void removeLastRound_restoresPreviousState() {
+        GameEngine game = newGame(GameEngine.MODE_ROTATION);
+        game.applyRound(new int[]{1, 2, 3});
+        int round = game.getRound();
+        int starter = game.getStarterIndex();
+        game.applyRound(new int[]{40, 50, 60});
+
+        assertArrayEquals(new int[]{40, 50, 60}, game.removeLastRound(round, starter));
+
+        assertEquals(1, game.getPlayedRounds());
+        assertEquals(round, game.getRound());
+        assertEquals(starter, game.getStarterIndex());
+        assertEquals(3, game.getPlayers().get(2).getScore());
+        game.applyRound(new int[]{7, 7, 7});
+        assertEquals(10, game.getPlayers().get(2).getScoreAfterRound(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void editRound_rejectsUnplayedRound() {
+        newGame(GameEngine.MODE_ROTATION).editRound(0, new int[]{1, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void applyRound_rejectsWrongScoreCount() {
+        newGame(GameEngine.MODE_ROTATION).applyRound(new int[]{1, 2});
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Aller-retour CSV : regroupement des lignes par partie, échappement, gagnant recalculé, objectif.
+ */
+public class HistoryCsvTest {
+
+    private static JSONObject game(String id, long date, String name, String[] players, int[][] rounds) throws Exception {
+        JSONObject entry = new JSONObject();
+        if (id != null) entry.put("game_id", id);
+        entry.put("date", date);
+        entry.put("game_name", name);
+        JSONArray arr = new JSONArray();
+        for (int i = 0; i < players.length; i++) {
+            JSONObject p = new JSONObject();
+            p.put("name", players[i]);
+            p.put("id", i);
+            p.put("color", GameEngine.playerColorHex(i));
+            JSONArray r = new JSONArray();
+            int total = 0;
+            for (int s : rounds[i]) {
+                r.put(s);
+                total += s;
+            }
+            p.put("score", total);
+            p.put("roundScores", r);
+            arr.put(p);
+        }
+        entry.put("players", arr);
+        return entry;
+    }
+
+    @Test
+    public void roundTrip_groupsRowsPerGame() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        HistoryCsv.writeHeader(csv);
+        HistoryCsv.writeGame(csv, game("g1", 1000L, "Soirée, \"chez\" Sami",
+                new String[]{"Amine", "Sami"}, new int[][]{{10, 0}, {5, 3}}));
+        HistoryCsv.writeGame(csv, game(null, 2000L, "Deux\nlignes",
+                new String[]{"Ines", "Amine", "Sami"}, new int[][]{{1}, {2}, {0}}));
+
+        HistoryCsv.GameReader reader = new HistoryCsv.GameReader(new StringReader(csv.toString()));
+        JSONObject first = reader.next();
+        assertEquals("g1", first.getString("game_id"));
+        assertEquals("Soirée, \"chez\" Sami", first.getString("game_name"));
+        assertEquals(2, first.getJSONArray("players").length());
+        assertEquals("Sami", first.getString("winner"));
+        assertEquals(8, first.getInt("winner_score"));
+        JSONArray rounds = first.getJSONArray("players").getJSONObject(0).getJSONArray("roundScores");
+        assertEquals(2, rounds.length());
+        assertEquals(10, rounds.getInt(0));
+
+        JSONObject second = reader.next();
+        assertFalse(second.has("game_id"));
+        assertEquals("Deux\nlignes", second.getString("game_name"));
+        assertEquals(3, second.getJSONArray("players").length());
+        assertEquals("Sami", second.getString("winner"));
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void roundTrip_keepsTargetScore() throws Exception {
+        JSONObject entry = game("g1", 1000L, "Vendredi", new String[]{"Amine", "Sami"}, new int[][]{{120}, {140}});
+        entry.put("config", new JSONObject().put("targetScore", 100).put("playerCount", 2));
+        StringBuilder csv = new StringBuilder();
+        HistoryCsv.writeHeader(csv);
+        HistoryCsv.writeGame(csv, entry);
+
+        JSONObject read = new HistoryCsv.GameReader(new StringReader(csv.toString())).next();
+        assertEquals(100, read.getJSONObject("config").getInt("targetScore"));
+    }
+
+    @Test
+    public void next_acceptsBomAndExportsWithoutTarget() throws Exception {
+        String rows = "g1,1000,Vendredi,0,Amine,,12,12\r\ng1,1000,Vendredi,1,Sami,,3,3\r\n";
+        HistoryCsv.GameReader reader = new HistoryCsv.GameReader(new StringReader(
+                "\uFEFFgame_id,date,game_name,seat,player,color,score,rounds\r\n" + rows));
+        JSONObject entry = reader.next();
+        assertEquals("Sami", entry.getString("winner"));
+        assertFalse(entry.has("config"));
+        assertNull(reader.next());
+    }
+
+    @Test(expected = IOException.class)
+    public void next_rejectsForeignFile() throws Exception {
+        new HistoryCsv.GameReader(new StringReader("a,b,c\r\n1,2,3\r\n")).next();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.orchom;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Identifiant dérivé des parties sans game_id : stable d'un export à l'autre, donc un
+ * même fichier importé deux fois ne duplique rien.
+ */
+public class LegacyGameIdTest {
+
+    private static JSONObject game(long date, String name, String[] players, int[] scores) throws Exception {
+        JSONArray arr = new JSONArray();
+        for (int i = 0; i < players.length; i++) {
+            JSONObject p = new JSONObject();
+            p.put("name", players[i]);
+            p.put("color", GameEngine.playerColorHex(i));
+            p.put("score", scores[i]);
+            p.put("roundScores", new JSONArray().put(scores[i]));
+            arr.put(p);
+        }
+        JSONObject entry = new JSONObject();
+        entry.put("date", date);
+        entry.put("game_name", name);
+        entry.put("players", arr);
+        return entry;
+    }
+
+    /** Import simulé : les parties sans identifiant reçoivent l'identifiant dérivé (upsert). */
+    private static void importCsv(String csv, Map<String, JSONObject> history) throws Exception {
+        HistoryCsv.GameReader reader = new HistoryCsv.GameReader(new StringReader(csv));
+        JSONObject entry;
+        while ((entry = reader.next()) != null) {
+            String uid = entry.has("game_id") ? entry.getString("game_id") : LegacyGameId.of(entry);
+            history.put(uid, entry);
+        }
+    }
+
+    @Test
+    public void importingSameExportTwice_keepsOneCopyPerGame() throws Exception {
+        JSONObject first = game(1000L, "Vendredi", new String[]{"Amine", "Sami"}, new int[]{40, 120});
+        JSONObject second = game(2000L, "Samedi", new String[]{"Ines", "Sami"}, new int[]{101, 7});
+        StringBuilder csv = new StringBuilder();
+        HistoryCsv.writeHeader(csv);
+        HistoryCsv.writeGame(csv, first);
+        HistoryCsv.writeGame(csv, second);
+
+        Map<String, JSONObject> history = new HashMap<>();
+        importCsv(csv.toString(), history);
+        importCsv(csv.toString(), history);
+
+        assertEquals(2, history.size());
+        assertTrue(history.containsKey(LegacyGameId.of(first)));
+        assertTrue(history.containsKey(LegacyGameId.of(second)));
+    }
+
+    @Test
+    public void of_isStableAcrossFormatsAndDistinguishesGames() throws Exception {
+        JSONObject entry = game(1000L, "Vendredi", new String[]{"Amine", "Sami"}, new int[]{40, 120});
+        String uid = LegacyGameId.of(entry);
+
+        assertTrue(uid.startsWith(LegacyGameId.PREFIX));
+        assertEquals(uid, LegacyGameId.of(new JSONObject(entry.toString())));
+        assertEquals(uid, LegacyGameId.of(1000L, "Vendredi", new String[]{"Amine", "Sami"}, new int[]{40, 120}));
+        assertNotEquals(uid, LegacyGameId.of(1000L, "Vendredi", new String[]{"Amine", "Sami"}, new int[]{40, 121}));
+        assertNotEquals(uid, LegacyGameId.of(1000L, "Vendredi", new String[]{"Sami", "Amine"}, new int[]{40, 120}));
+        assertNotEquals(uid, LegacyGameId.of(1001L, "Vendredi", new String[]{"Amine", "Sami"}, new int[]{40, 120}));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Chronologie de rejeu : cumuls et rangs à chaque étape, comparés au moteur de jeu.
+ */
+public class ReplayTimelineTest {
+
+    @Test
+    public void build_tracksCumulativeScoresAndRanks() {
+        ReplayTimeline t = ReplayTimeline.build(new int[][]{{10, 0, 30}, {5, 20, 0}, {0, 0, 0}});
+
+        assertEquals(3, t.getRoundCount());
+        assertEquals(0, t.cumulative(0, 1));
+        assertEquals(2, t.rank(0, 2)); // Étape 0 : ordre des sièges
+        assertEquals(25, t.cumulative(2, 1));
+        assertEquals(20, t.roundScore(2, 1));
+        // Après la manche 1 : C (0) < B (5) < A (10)
+        assertEquals(2, t.seatAtRank(1, 0));
+        assertEquals(2, t.rank(1, 0));
+        // Après la manche 3 : C 0, B 25, A 40
+        assertEquals(0, t.seatAtRank(3, 2));
+        assertEquals(40, t.getMaxCumulative());
+        assertEquals(0, t.getMinCumulative());
+    }
+
+    @Test
+    public void build_handlesRaggedRoundsAndNegativeScores() {
+        ReplayTimeline t = ReplayTimeline.build(new int[][]{{-20, 5}, {3}});
+
+        assertEquals(2, t.getRoundCount());
+        assertEquals(3, t.cumulative(2, 1));
+        assertEquals(0, t.roundScore(2, 1));
+        assertEquals(-20, t.getMinCumulative());
+        assertEquals(0, t.seatAtRank(2, 0));
+    }
+
+    @Test
+    public void ranks_matchGameEngineWinnerAtEveryRound() {
+        Random random = new Random(3);
+        int players = 8, rounds = 300;
+        int[][] scores = new int[players][rounds];
+        String[] names = new String[players];
+        for (int p = 0; p < players; p++) {
+            names[p] = "P" + p;
+            for (int r = 0; r < rounds; r++) scores[p][r] = random.nextInt(12) * 5 - 10;
+        }
+        GameConfig config = new GameConfig("Test", players, 1_000_000, names, GameEngine.MODE_MANUAL, 0, 50, 10, 20, 100);
+        GameEngine game = GameEngine.newGame("id", config, new Random());
+        ReplayTimeline t = ReplayTimeline.build(scores);
+
+        int[] round = new int[players];
+        for (int r = 0; r < rounds; r++) {
+            for (int p = 0; p < players; p++) round[p] = scores[p][r];
+            game.applyRound(round);
+            int winnerSeat = game.getWinner().getId();
+            assertEquals(winnerSeat, t.seatAtRank(r + 1, 0));
+            for (int k = 1; k < players; k++) {
+                assertTrue(t.cumulative(r + 1, t.seatAtRank(r + 1, k - 1)) <= t.cumulative(r + 1, t.seatAtRank(r + 1, k)));
+            }
+        }
+    }
+}
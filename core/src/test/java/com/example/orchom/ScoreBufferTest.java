@@ -0,0 +1,46 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Arbre de Fenwick : sommes cumulées comparées à un calcul naïf après ajouts, corrections et retraits.
+ */
+public class ScoreBufferTest {
+
+    @Test
+    public void prefixSums_matchNaiveAfterRandomEdits() {
+        Random random = new Random(42);
+        ScoreBuffer buffer = new ScoreBuffer(2);
+        int[] expected = new int[300];
+        int size = 0;
+        for (int step = 0; step < 2000; step++) {
+            int op = random.nextInt(10);
+            if (size == 0 || op < 5) {
+                if (size == expected.length) continue;
+                int v = random.nextInt(200) - 100;
+                buffer.add(v);
+                expected[size++] = v;
+            } else if (op < 9) {
+                int round = random.nextInt(size);
+                int v = random.nextInt(200) - 100;
+                assertEquals(v - expected[round], buffer.set(round, v));
+                expected[round] = v;
+            } else {
+                assertEquals(expected[--size], buffer.removeLast());
+            }
+
+            int k = random.nextInt(size + 1);
+            int naive = 0;
+            for (int i = 0; i < k; i++) naive += expected[i];
+            assertEquals(naive, buffer.sumOfFirst(k));
+        }
+        int total = 0;
+        for (int i = 0; i < size; i++) total += expected[i];
+        assertEquals(total, buffer.total());
+        assertEquals(size, buffer.size());
+    }
+}
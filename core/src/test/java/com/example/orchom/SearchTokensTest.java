@@ -0,0 +1,34 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Normalisation partagée par l'index de recherche et la saisie.
+ */
+public class SearchTokensTest {
+
+    @Test
+    public void tokenize_lowercasesStripsAccentsAndSplits() {
+        assertEquals(Arrays.asList("soiree", "chez", "sami", "2024"),
+                new ArrayList<>(SearchTokens.tokenize("Soirée chez SÁMI — 2024")));
+    }
+
+    @Test
+    public void tokenize_dropsDuplicatesAndEmptyText() {
+        assertEquals(Arrays.asList("amine"), new ArrayList<>(SearchTokens.tokenize("Amine amine AMINE")));
+        assertTrue(SearchTokens.tokenize("  -- ").isEmpty());
+        assertTrue(SearchTokens.tokenize(null).isEmpty());
+    }
+
+    @Test
+    public void prefixUpperBound_coversAllContinuations() {
+        String upper = SearchTokens.prefixUpperBound("sa");
+        assertTrue("sami".compareTo("sa") >= 0 && "sami".compareTo(upper) < 0);
+        assertTrue("sb".compareTo(upper) > 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orchom;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Estimation Monte Carlo : cas déterministes, puis estimation parallèle progressive.
+ */
+public class WinProbabilityEstimatorTest {
+
+    @Test
+    public void simulate_deterministicScoresGiveCertainOutcome() {
+        long[] counts = WinProbabilityEstimator.simulate(new int[]{0, 0, 30}, new int[][]{{10}, {20}, {5}},
+                100, 50, new SplittableRandom(1));
+
+        // Manche 5 : A 50, B 100 (saute), C 55
+        assertEquals(50, counts[0]);
+        assertEquals(0, counts[1]);
+        assertEquals(50, counts[3 + 1]);
+        assertEquals(0, counts[3]);
+        assertEquals(0, counts[3 + 2]);
+    }
+
+    @Test
+    public void simulate_finishedGameIsNotPlayedFurther() {
+        long[] counts = WinProbabilityEstimator.simulate(new int[]{120, 40}, new int[][]{{-50}, {0}},
+                100, 10, new SplittableRandom(1));
+
+        assertEquals(10, counts[1]);
+        assertEquals(10, counts[2]);
+    }
+
+    @Test
+    public void start_refinesProgressivelyOnPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final AtomicReference<WinProbabilityEstimator.Result> last = new AtomicReference<>();
+            final int[] updates = new int[1];
+            new WinProbabilityEstimator(pool).start(new int[]{0, 0}, new int[][]{{0, 10, 20}, {5, 15, 25, 40}},
+                    200, 42, result -> {
+                        WinProbabilityEstimator.Result previous = last.getAndSet(result);
+                        if (previous != null) assertTrue(result.simulations > previous.simulations);
+                        updates[0]++;
+                        if (result.complete) done.countDown();
+                    });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            WinProbabilityEstimator.Result result = last.get();
+            assertTrue(result.simulations >= 1000 && result.simulations <= WinProbabilityEstimator.MAX_SIMULATIONS);
+            assertEquals(1.0, result.winChance(0) + result.winChance(1), 1e-9);
+            // Joueur 1 marque plus en moyenne : il saute plus souvent et gagne moins
+            assertTrue(result.winChance(0) > result.winChance(1));
+            assertTrue(result.bustChance(1) > result.bustChance(0));
+            assertTrue(updates[0] >= 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void cancel_stopsCallbacks() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final int[] updates = new int[1];
+            WinProbabilityEstimator.Estimate estimate = new WinProbabilityEstimator(pool).start(
+                    new int[]{0, 0}, new int[][]{{1}, {1}}, 1_000_000, 1, result -> updates[0]++);
+            estimate.cancel();
+            pool.awaitQuiescence(5, TimeUnit.SECONDS);
+
+            assertTrue(estimate.isCancelled());
+            assertTrue(updates[0] <= 1); // Au plus le lot déjà terminé avant l'annulation
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
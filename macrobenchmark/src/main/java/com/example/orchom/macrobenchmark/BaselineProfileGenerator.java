@@ -0,0 +1,39 @@
+package com.example.orchom.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Génère le Baseline Profile de :app (appareil rooté ou API 33+) :
+ * <pre>
+ * ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.example.orchom.macrobenchmark.BaselineProfileGenerator
+ * </pre>
+ * puis copier le fichier "*-baseline-prof.txt" produit dans app/src/main/baseline-prof.txt.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule rule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        rule.collect(Scenarios.PACKAGE, scope -> {
+            Scenarios.seed(scope, 500, true);
+            scope.pressHome();
+            // Démarrage, reprise de partie, saisie de manches
+            Scenarios.openActiveGame(scope);
+            Scenarios.enterRounds(scope, 3);
+            // Historique
+            scope.pressHome();
+            Scenarios.openHistory(scope);
+            Scenarios.scrollHistory(scope, 5);
+            return Unit.INSTANCE;
+        });
+    }
+}
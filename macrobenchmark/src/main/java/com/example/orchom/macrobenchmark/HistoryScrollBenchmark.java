@@ -0,0 +1,44 @@
+package com.example.orchom.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Saccades du défilement de l'historique (pagination, miniatures) sur HISTORY_GAMES parties.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistoryScrollBenchmark {
+
+    private static final int FLINGS = 15;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test
+    public void scrollHistory() {
+        rule.measureRepeated(
+                Scenarios.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.WARM,
+                5,
+                scope -> {
+                    Scenarios.seed(scope, Scenarios.HISTORY_GAMES, false);
+                    Scenarios.openHistory(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Scenarios.scrollHistory(scope, FLINGS);
+                    return Unit.INSTANCE;
+                });
+    }
+}
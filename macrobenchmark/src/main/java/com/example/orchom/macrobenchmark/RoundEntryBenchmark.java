@@ -0,0 +1,44 @@
+package com.example.orchom.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Fluidité de GameActivity pendant la validation de manches (classement, journal, snapshot).
+ */
+@RunWith(AndroidJUnit4.class)
+public class RoundEntryBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test
+    public void validateRounds() {
+        rule.measureRepeated(
+                Scenarios.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require),
+                StartupMode.WARM,
+                5,
+                scope -> {
+                    Scenarios.seed(scope, 0, true);
+                    Scenarios.openActiveGame(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Scenarios.enterRounds(scope, ROUNDS);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.orchom.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Parcours utilisateur partagés par les benchmarks et le générateur de Baseline Profile.
+ */
+final class Scenarios {
+
+    static final String PACKAGE = "com.example.orchom";
+    static final int HISTORY_GAMES = 5000;
+    private static final long TIMEOUT_MS = 5000;
+
+    private Scenarios() {}
+
+    /**
+     * Remplit l'historique et crée une partie en cours via BenchmarkSeedReceiver (build benchmark).
+     */
+    static void seed(MacrobenchmarkScope scope, int games, boolean activeGame) {
+        try {
+            scope.getDevice().executeShellCommand("am broadcast -a com.example.orchom.SEED_BENCHMARK -p " + PACKAGE
+                    + " --ei games " + games + " --ez active_game " + activeGame);
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible de préparer les données", e);
+        }
+    }
+
+    static UiObject2 waitFor(UiDevice device, String resId) {
+        UiObject2 view = device.wait(Until.findObject(By.res(PACKAGE, resId)), TIMEOUT_MS);
+        if (view == null) throw new IllegalStateException("Vue introuvable : " + resId);
+        return view;
+    }
+
+    /** Accueil -> "Reprendre" -> GameActivity. */
+    static void openActiveGame(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        waitFor(scope.getDevice(), "resumeButton").click();
+        waitFor(scope.getDevice(), "validateRoundButton");
+    }
+
+    /** Saisit puis valide {@code rounds} manches. */
+    static void enterRounds(MacrobenchmarkScope scope, int rounds) {
+        UiDevice device = scope.getDevice();
+        for (int r = 0; r < rounds; r++) {
+            List<UiObject2> inputs = device.findObjects(By.res(PACKAGE, "scoreInput"));
+            for (int i = 0; i < inputs.size(); i++) {
+                inputs.get(i).setText(String.valueOf(5 + (r + i) % 40));
+            }
+            waitFor(device, "validateRoundButton").click();
+            device.waitForIdle();
+        }
+    }
+
+    /** Accueil -> Historique. */
+    static void openHistory(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        waitFor(scope.getDevice(), "historyButton").click();
+        waitFor(scope.getDevice(), "historyRecyclerView");
+    }
+
+    /** Lancers successifs vers le bas puis retour en haut. */
+    static void scrollHistory(MacrobenchmarkScope scope, int flings) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = waitFor(device, "historyRecyclerView");
+        // Évite de lancer depuis le bord (gestes système)
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < flings; i++) {
+            list.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+}
@@ -21,4 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "orchom"
 include(":app")
+include(":core")
+include(":macrobenchmark")
  
\ No newline at end of file